@@ -0,0 +1,67 @@
+package com.leaderboard.benchmark;
+
+import com.leaderboard.security.JwtTokenProvider;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Validação de JWT por requisição: com o cache de tokens verificados (cacheSize > 0)
+ * e sem ele, quando toda chamada refaz o parse e a verificação HMAC.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "--enable-preview")
+public class JwtValidationBenchmark {
+
+    // Mesma chave padrão do application.yml
+    private static final String SECRET =
+            "dGhpc2lzYXZlcnlzZWN1cmVrZXl0aGF0aXNhdGxlYXN0MjU2Yml0c2xvbmdmb3JKV1RzaWduaW5nYW5kdmVyaWZpY2F0aW9uaW5vdXJhcHBsaWNhdGlvbg==";
+
+    @Param({"10000", "0"})
+    private long cacheSize;
+
+    private JwtTokenProvider tokenProvider;
+    private String[] tokens;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        tokenProvider = new JwtTokenProvider();
+        ReflectionTestUtils.setField(tokenProvider, "jwtSecret", SECRET);
+        ReflectionTestUtils.setField(tokenProvider, "jwtExpirationInMs", 86_400_000);
+        ReflectionTestUtils.setField(tokenProvider, "verifiedCacheSize", cacheSize);
+        ReflectionTestUtils.invokeMethod(tokenProvider, "init");
+
+        tokens = new String[1_000];
+        for (int i = 0; i < tokens.length; i++) {
+            tokens[i] = tokenProvider.generateToken((long) i, "player" + i);
+        }
+    }
+
+    @Benchmark
+    public boolean validateToken() {
+        return tokenProvider.validateToken(tokens[ThreadLocalRandom.current().nextInt(tokens.length)]);
+    }
+
+    @Benchmark
+    public String generateToken() {
+        int i = ThreadLocalRandom.current().nextInt(tokens.length);
+        return tokenProvider.generateToken((long) i, "player" + i);
+    }
+}
@@ -0,0 +1,130 @@
+package com.leaderboard.benchmark;
+
+import com.leaderboard.dto.LeaderboardEntry;
+import com.leaderboard.service.InMemoryLeaderboardEngine;
+import com.leaderboard.service.LeaderboardEngine;
+import com.leaderboard.service.LeaderboardRebuild;
+import com.leaderboard.service.RedisLeaderboardService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.utility.DockerImageName;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Caminhos quentes do LeaderboardEngine: submissão de score, top N (inclui a conversão para LeaderboardEntry)
+ * e posição do usuário, no backend em memória e no Redis.
+ *
+ * O Redis usado é o de -Dbench.redis.host/-Dbench.redis.port (passados ao fork com
+ * -jvmArgsAppend nos jmh.args); sem essas propriedades, um container redis:7-alpine é iniciado via Testcontainers.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "--enable-preview")
+public class LeaderboardEngineBenchmark {
+
+    private static final long GAME_ID = 1L;
+
+    @Param({"memory", "redis"})
+    private String engine;
+
+    @Param({"100000"})
+    private int players;
+
+    private LeaderboardEngine leaderboardEngine;
+    private GenericContainer<?> redisContainer;
+    private LettuceConnectionFactory connectionFactory;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        leaderboardEngine = "redis".equals(engine) ? redisEngine() : new InMemoryLeaderboardEngine(event -> { });
+
+        LocalDateTime achievedAt = LocalDateTime.now();
+        try (LeaderboardRebuild global = leaderboardEngine.rebuildGlobalLeaderboard();
+             LeaderboardRebuild game = leaderboardEngine.rebuildGameLeaderboard(GAME_ID)) {
+            for (int i = 0; i < players; i++) {
+                int score = ThreadLocalRandom.current().nextInt(1_000_000);
+                global.add(username(i), score, achievedAt);
+                game.add(username(i), score, achievedAt);
+            }
+            global.commit();
+            game.commit();
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        if (connectionFactory != null) {
+            connectionFactory.destroy();
+        }
+        if (redisContainer != null) {
+            redisContainer.stop();
+        }
+    }
+
+    @Benchmark
+    public Long submitBestScore() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return leaderboardEngine.submitBestScore(GAME_ID, username(random.nextInt(players)),
+                random.nextInt(1_000_000), LocalDateTime.now());
+    }
+
+    @Benchmark
+    public List<LeaderboardEntry> globalTop100() {
+        return leaderboardEngine.getGlobalTopN(100);
+    }
+
+    @Benchmark
+    public List<LeaderboardEntry> gameRankRange() {
+        long start = ThreadLocalRandom.current().nextLong(1, players - 100);
+        return leaderboardEngine.getGameRankRange(GAME_ID, start, start + 49);
+    }
+
+    @Benchmark
+    public Long userGlobalRank() {
+        return leaderboardEngine.getUserGlobalRank(username(ThreadLocalRandom.current().nextInt(players)));
+    }
+
+    private LeaderboardEngine redisEngine() {
+        String host = System.getProperty("bench.redis.host");
+        int port = Integer.getInteger("bench.redis.port", 6379);
+        if (host == null) {
+            redisContainer = new GenericContainer<>(DockerImageName.parse("redis:7-alpine")).withExposedPorts(6379);
+            redisContainer.start();
+            host = redisContainer.getHost();
+            port = redisContainer.getMappedPort(6379);
+        }
+
+        connectionFactory = new LettuceConnectionFactory(new RedisStandaloneConfiguration(host, port));
+        connectionFactory.afterPropertiesSet();
+        connectionFactory.start();
+
+        // Sem FLUSHDB: a carga inicial é uma reconstrução, que substitui as chaves dos leaderboards por RENAME
+        return new RedisLeaderboardService(new StringRedisTemplate(connectionFactory), event -> { });
+    }
+
+    private static String username(int i) {
+        return "player" + i;
+    }
+}
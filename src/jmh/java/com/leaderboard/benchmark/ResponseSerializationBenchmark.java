@@ -0,0 +1,100 @@
+package com.leaderboard.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.leaderboard.dto.ApiResponse;
+import com.leaderboard.dto.LeaderboardEntry;
+import com.leaderboard.dto.ScoreDto;
+import com.leaderboard.entity.Game;
+import com.leaderboard.entity.Score;
+import com.leaderboard.entity.User;
+import com.leaderboard.service.ScoreService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Montagem das respostas das listagens: conversão Score -> ScoreDto
+ * e serialização do ApiResponse com o ObjectMapper configurado como o do Spring MVC.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "--enable-preview")
+public class ResponseSerializationBenchmark {
+
+    @Param({"10", "100"})
+    private int size;
+
+    private ObjectMapper objectMapper;
+    private ScoreService scoreService;
+    private MethodHandle convertToDto;
+    private List<Score> scores;
+    private ApiResponse<List<LeaderboardEntry>> leaderboardResponse;
+    private ApiResponse<List<ScoreDto>> scoresResponse;
+
+    @Setup(Level.Trial)
+    public void setUp() throws ReflectiveOperationException {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        scoreService = new ScoreService();
+        // convertToDto é privado: resolvido uma vez, para não medir o custo de reflexão a cada chamada
+        convertToDto = MethodHandles.privateLookupIn(ScoreService.class, MethodHandles.lookup())
+                .findVirtual(ScoreService.class, "convertToDto", MethodType.methodType(ScoreDto.class, Score.class));
+
+        Game game = new Game(1L, "Tetris", "Jogo de blocos em queda", null, LocalDateTime.now());
+        scores = new ArrayList<>(size);
+        List<LeaderboardEntry> entries = new ArrayList<>(size);
+        List<ScoreDto> dtos = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            User user = new User();
+            user.setId((long) i);
+            user.setUsername("player" + i);
+
+            Score score = new Score((long) i, user, game, 1_000_000 - i, LocalDateTime.now());
+            scores.add(score);
+            dtos.add(new ScoreDto(score.getId(), user.getUsername(), game.getName(), score.getScore(), score.getSubmittedAt()));
+            entries.add(new LeaderboardEntry((long) i + 1, user.getUsername(), score.getScore(), game.getName(), null));
+        }
+
+        leaderboardResponse = ApiResponse.success("Leaderboard global", entries);
+        scoresResponse = ApiResponse.success("Top scores", dtos);
+    }
+
+    @Benchmark
+    public void convertScoresToDto(Blackhole blackhole) throws Throwable {
+        for (Score score : scores) {
+            blackhole.consume((ScoreDto) convertToDto.invokeExact(scoreService, score));
+        }
+    }
+
+    @Benchmark
+    public byte[] serializeLeaderboardResponse() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(leaderboardResponse);
+    }
+
+    @Benchmark
+    public byte[] serializeScoresResponse() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(scoresResponse);
+    }
+}
@@ -0,0 +1,70 @@
+package com.leaderboard.loadtest;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Parâmetros do teste de carga, lidos de propriedades de sistema (-Dloadtest.*)
+ */
+class LoadTestConfig {
+
+    // Proporção padrão: leituras públicas dominam, submissões são ~1 em 5
+    private static final String DEFAULT_MIX = "submit=20,global=35,ranking=20,range-global=15,range-game=10";
+
+    final String url;
+    final int users;
+    final int concurrency;
+    final Duration warmup;
+    final Duration duration;
+    final double userSkew;
+    final double gameSkew;
+    final Map<Operation, Integer> mix;
+    final String reportDir;
+
+    private LoadTestConfig(String url, int users, int concurrency, Duration warmup, Duration duration,
+                           double userSkew, double gameSkew, Map<Operation, Integer> mix, String reportDir) {
+        this.url = url;
+        this.users = users;
+        this.concurrency = concurrency;
+        this.warmup = warmup;
+        this.duration = duration;
+        this.userSkew = userSkew;
+        this.gameSkew = gameSkew;
+        this.mix = mix;
+        this.reportDir = reportDir;
+    }
+
+    static LoadTestConfig fromSystemProperties() {
+        return new LoadTestConfig(
+                System.getProperty("loadtest.url", ""),
+                Integer.getInteger("loadtest.users", 1_000),
+                Integer.getInteger("loadtest.concurrency", 64),
+                Duration.ofSeconds(Integer.getInteger("loadtest.warmup-seconds", 10)),
+                Duration.ofSeconds(Integer.getInteger("loadtest.duration-seconds", 60)),
+                Double.parseDouble(System.getProperty("loadtest.user-skew", "1.1")),
+                Double.parseDouble(System.getProperty("loadtest.game-skew", "0.8")),
+                parseMix(System.getProperty("loadtest.mix", DEFAULT_MIX)),
+                System.getProperty("loadtest.report-dir", "target/loadtest"));
+    }
+
+    boolean startsLocalApp() {
+        return url.isBlank();
+    }
+
+    // "submit=20,global=35,..." -> pesos por operação; operações omitidas ficam com peso 0
+    private static Map<Operation, Integer> parseMix(String mix) {
+        Map<Operation, Integer> weights = new EnumMap<>(Operation.class);
+        for (String part : mix.split(",")) {
+            String[] pair = part.trim().split("=");
+            if (pair.length != 2) {
+                throw new IllegalArgumentException("Mix inválido: " + part);
+            }
+            weights.put(Operation.fromName(pair[0].trim()), Integer.parseInt(pair[1].trim()));
+        }
+        if (weights.values().stream().mapToInt(Integer::intValue).sum() <= 0) {
+            throw new IllegalArgumentException("Mix sem nenhuma operação: " + mix);
+        }
+        return weights;
+    }
+}
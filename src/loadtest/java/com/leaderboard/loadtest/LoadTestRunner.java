@@ -0,0 +1,315 @@
+package com.leaderboard.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.leaderboard.Application;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.utility.DockerImageName;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Teste de carga ponta a ponta: registra usuários sintéticos via /api/auth/register e repete um mix
+ * configurável de submissões e leituras, com usuários e jogos sorteados por distribuição zipfiana.
+ * Ao final imprime os percentis de latência por endpoint e grava os histogramas (.hgrm) em loadtest.report-dir.
+ *
+ * Sem -Dloadtest.url, sobe Postgres e Redis via Testcontainers e a aplicação no mesmo processo (porta aleatória).
+ * Com -Dloadtest.url=http://host:8080, usa a aplicação já em execução nesse endereço.
+ *
+ * O loop é fechado (cada worker espera a resposta antes da próxima requisição): com o servidor saturado,
+ * a vazão cai em vez de as latências crescerem sem limite, então compare vazão e percentis juntos.
+ */
+public class LoadTestRunner {
+
+    private static final long MAX_LATENCY_NANOS = TimeUnit.SECONDS.toNanos(60);
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+
+    private final LoadTestConfig config;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final HttpClient httpClient;
+    private final Map<Operation, Histogram> histograms = new EnumMap<>(Operation.class);
+    private final AtomicLongArray errors = new AtomicLongArray(Operation.values().length);
+
+    private String baseUrl;
+    private List<String> tokens;
+    private List<Long> gameIds;
+    private Operation[] weightedOperations;
+
+    LoadTestRunner(LoadTestConfig config) {
+        this.config = config;
+        this.httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .build();
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadTestConfig config = LoadTestConfig.fromSystemProperties();
+        new LoadTestRunner(config).run();
+    }
+
+    void run() throws Exception {
+        try (LocalStack stack = config.startsLocalApp() ? LocalStack.start() : null) {
+            baseUrl = stack != null ? stack.baseUrl() : config.url.replaceAll("/+$", "");
+            System.out.println("Alvo: " + baseUrl);
+
+            gameIds = loadGameIds();
+            tokens = registerUsers();
+            weightedOperations = expandMix(config.mix);
+
+            System.out.println("Aquecimento: " + config.warmup.toSeconds() + "s");
+            drive(config.warmup, false);
+
+            System.out.println("Medição: " + config.duration.toSeconds() + "s, " + config.concurrency + " workers");
+            for (Operation operation : Operation.values()) {
+                histograms.put(operation, new ConcurrentHistogram(MAX_LATENCY_NANOS, 3));
+            }
+            long started = System.nanoTime();
+            drive(config.duration, true);
+            double elapsedSeconds = (System.nanoTime() - started) / 1e9;
+
+            report(elapsedSeconds);
+        }
+    }
+
+    private List<Long> loadGameIds() throws IOException, InterruptedException {
+        HttpResponse<String> response = send(HttpRequest.newBuilder(uri("/api/games/public")).GET(), null);
+        List<Long> ids = new ArrayList<>();
+        for (JsonNode game : objectMapper.readTree(response.body()).path("data")) {
+            ids.add(game.path("id").asLong());
+        }
+        if (ids.isEmpty()) {
+            throw new IllegalStateException("Nenhum jogo cadastrado em " + baseUrl);
+        }
+        return ids;
+    }
+
+    /**
+     * Registra os usuários sintéticos em paralelo; o prefixo aleatório permite repetir o teste no mesmo banco
+     */
+    private List<String> registerUsers() throws InterruptedException {
+        String prefix = "lt" + UUID.randomUUID().toString().substring(0, 6) + "_";
+        String[] registered = new String[config.users];
+        Semaphore permits = new Semaphore(config.concurrency);
+
+        System.out.println("Registrando " + config.users + " usuários...");
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < config.users; i++) {
+                int index = i;
+                permits.acquire();
+                executor.submit(() -> {
+                    try {
+                        String username = prefix + index;
+                        String body = objectMapper.writeValueAsString(Map.of(
+                                "username", username,
+                                "email", username + "@loadtest.local",
+                                "password", "loadtest-" + index));
+                        HttpResponse<String> response = send(HttpRequest.newBuilder(uri("/api/auth/register"))
+                                .header("Content-Type", "application/json")
+                                .POST(HttpRequest.BodyPublishers.ofString(body)), null);
+                        registered[index] = objectMapper.readTree(response.body()).path("data").path("token").asText(null);
+                    } catch (Exception e) {
+                        System.err.println("Falha ao registrar usuário " + index + ": " + e.getMessage());
+                    } finally {
+                        permits.release();
+                    }
+                    return null;
+                });
+            }
+        }
+
+        List<String> result = new ArrayList<>(config.users);
+        for (String token : registered) {
+            if (token != null) result.add(token);
+        }
+        if (result.isEmpty()) {
+            throw new IllegalStateException("Nenhum usuário registrado");
+        }
+        return result;
+    }
+
+    /**
+     * Roda config.concurrency workers até o fim do período; só registra latências quando record = true
+     */
+    private void drive(Duration period, boolean record) throws InterruptedException {
+        ZipfianSampler users = new ZipfianSampler(tokens.size(), config.userSkew);
+        ZipfianSampler games = new ZipfianSampler(gameIds.size(), config.gameSkew);
+        long deadline = System.nanoTime() + period.toNanos();
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int w = 0; w < config.concurrency; w++) {
+                executor.submit(() -> {
+                    while (System.nanoTime() < deadline) {
+                        Operation operation = weightedOperations[ThreadLocalRandom.current().nextInt(weightedOperations.length)];
+                        String token = tokens.get(users.next());
+                        Long gameId = gameIds.get(games.next());
+
+                        long start = System.nanoTime();
+                        boolean ok = execute(operation, token, gameId);
+                        long latency = System.nanoTime() - start;
+
+                        if (record) {
+                            histograms.get(operation).recordValue(Math.min(latency, MAX_LATENCY_NANOS));
+                            if (!ok) errors.incrementAndGet(operation.ordinal());
+                        }
+                    }
+                    return null;
+                });
+            }
+        }
+    }
+
+    private boolean execute(Operation operation, String token, Long gameId) {
+        try {
+            HttpRequest.Builder request = switch (operation) {
+                case SUBMIT -> HttpRequest.newBuilder(uri("/api/scores/submit"))
+                        .header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofString(
+                                "{\"gameId\":" + gameId + ",\"score\":" + ThreadLocalRandom.current().nextInt(1_000_000) + "}"));
+                case GLOBAL -> HttpRequest.newBuilder(uri("/api/leaderboard/public/global?limit=10")).GET();
+                case RANKING -> HttpRequest.newBuilder(uri("/api/leaderboard/my/ranking")).GET();
+                case RANGE_GLOBAL -> HttpRequest.newBuilder(uri("/api/leaderboard/range/global" + randomRange())).GET();
+                case RANGE_GAME -> HttpRequest.newBuilder(uri("/api/leaderboard/range/game/" + gameId + randomRange())).GET();
+            };
+
+            int status = send(request, operation == Operation.GLOBAL ? null : token).statusCode();
+            return status < 400;
+        } catch (Exception e) {
+            return false;
+        }
+    }
+
+    // Faixa de 50 posições com início uniforme entre os jogadores registrados
+    private String randomRange() {
+        int start = 1 + ThreadLocalRandom.current().nextInt(Math.max(1, tokens.size() - 50));
+        return "?start=" + start + "&end=" + (start + 49);
+    }
+
+    private HttpResponse<String> send(HttpRequest.Builder request, String token) throws IOException, InterruptedException {
+        request.timeout(REQUEST_TIMEOUT);
+        if (token != null) {
+            request.header("Authorization", "Bearer " + token);
+        }
+        return httpClient.send(request.build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private URI uri(String path) {
+        return URI.create(baseUrl + path);
+    }
+
+    private void report(double elapsedSeconds) throws IOException {
+        Path dir = Path.of(config.reportDir);
+        Files.createDirectories(dir);
+
+        System.out.printf("%n%-45s %9s %8s %9s %9s %9s %9s %9s %9s%n",
+                "endpoint", "req/s", "erros", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms", "média ms");
+        for (Operation operation : Operation.values()) {
+            Histogram histogram = histograms.get(operation);
+            if (histogram.getTotalCount() == 0) continue;
+
+            System.out.printf("%-45s %9.1f %8d %9.2f %9.2f %9.2f %9.2f %9.2f %9.2f%n",
+                    operation.endpoint,
+                    histogram.getTotalCount() / elapsedSeconds,
+                    errors.get(operation.ordinal()),
+                    millis(histogram.getValueAtPercentile(50)),
+                    millis(histogram.getValueAtPercentile(90)),
+                    millis(histogram.getValueAtPercentile(99)),
+                    millis(histogram.getValueAtPercentile(99.9)),
+                    millis(histogram.getMaxValue()),
+                    histogram.getMean() / 1e6);
+
+            // Distribuição completa em milissegundos, no formato lido pelo HdrHistogram plotter
+            try (PrintStream out = new PrintStream(Files.newOutputStream(dir.resolve(operation.key + ".hgrm")))) {
+                histogram.outputPercentileDistribution(out, 1e6);
+            }
+        }
+        System.out.println("\nHistogramas gravados em " + dir.toAbsolutePath());
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1e6;
+    }
+
+    // Cada operação aparece tantas vezes quanto seu peso: sorteio uniforme no array = sorteio ponderado
+    private static Operation[] expandMix(Map<Operation, Integer> mix) {
+        List<Operation> expanded = new ArrayList<>();
+        mix.forEach((operation, weight) -> {
+            for (int i = 0; i < weight; i++) expanded.add(operation);
+        });
+        return expanded.toArray(Operation[]::new);
+    }
+
+    /**
+     * Postgres e Redis em containers e a aplicação no mesmo processo, em uma porta aleatória
+     */
+    private static final class LocalStack implements AutoCloseable {
+        private final PostgreSQLContainer<?> postgres;
+        private final GenericContainer<?> redis;
+        private final ConfigurableApplicationContext context;
+
+        private LocalStack(PostgreSQLContainer<?> postgres, GenericContainer<?> redis, ConfigurableApplicationContext context) {
+            this.postgres = postgres;
+            this.redis = redis;
+            this.context = context;
+        }
+
+        static LocalStack start() {
+            System.out.println("Subindo Postgres e Redis (Testcontainers)...");
+            PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>(DockerImageName.parse("postgres:16-alpine"));
+            GenericContainer<?> redis = new GenericContainer<>(DockerImageName.parse("redis:7-alpine")).withExposedPorts(6379);
+            postgres.start();
+            redis.start();
+
+            ConfigurableApplicationContext context = SpringApplication.run(Application.class,
+                    "--server.port=0",
+                    "--spring.datasource.url=" + postgres.getJdbcUrl(),
+                    "--spring.datasource.username=" + postgres.getUsername(),
+                    "--spring.datasource.password=" + postgres.getPassword(),
+                    "--spring.data.redis.host=" + redis.getHost(),
+                    "--spring.data.redis.port=" + redis.getMappedPort(6379),
+                    "--spring.jpa.show-sql=false",
+                    "--logging.level.com.leaderboard=INFO",
+                    "--logging.level.org.hibernate.SQL=WARN");
+
+            return new LocalStack(postgres, redis, context);
+        }
+
+        String baseUrl() {
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            return "http://localhost:" + port;
+        }
+
+        @Override
+        public void close() {
+            context.close();
+            redis.stop();
+            postgres.stop();
+        }
+    }
+}
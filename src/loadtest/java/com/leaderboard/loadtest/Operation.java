@@ -0,0 +1,29 @@
+package com.leaderboard.loadtest;
+
+/**
+ * Endpoints exercitados pelo teste de carga
+ */
+enum Operation {
+    SUBMIT("submit", "POST /api/scores/submit"),
+    GLOBAL("global", "GET /api/leaderboard/public/global"),
+    RANKING("ranking", "GET /api/leaderboard/my/ranking"),
+    RANGE_GLOBAL("range-global", "GET /api/leaderboard/range/global"),
+    RANGE_GAME("range-game", "GET /api/leaderboard/range/game/{gameId}");
+
+    final String key;
+    final String endpoint;
+
+    Operation(String key, String endpoint) {
+        this.key = key;
+        this.endpoint = endpoint;
+    }
+
+    static Operation fromName(String key) {
+        for (Operation operation : values()) {
+            if (operation.key.equals(key)) {
+                return operation;
+            }
+        }
+        throw new IllegalArgumentException("Operação desconhecida no mix: " + key);
+    }
+}
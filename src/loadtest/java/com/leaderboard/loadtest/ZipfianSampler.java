@@ -0,0 +1,43 @@
+package com.leaderboard.loadtest;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Sorteia índices 0..n-1 com distribuição zipfiana: o índice k tem peso 1 / (k + 1)^s.
+ * Poucos jogadores/jogos concentram a maior parte do tráfego, como em produção.
+ */
+class ZipfianSampler {
+
+    private final double[] cumulative;
+
+    ZipfianSampler(int n, double exponent) {
+        if (n < 1) {
+            throw new IllegalArgumentException("n deve ser maior que zero");
+        }
+
+        cumulative = new double[n];
+        double sum = 0;
+        for (int k = 0; k < n; k++) {
+            sum += 1.0 / Math.pow(k + 1, exponent);
+            cumulative[k] = sum;
+        }
+        for (int k = 0; k < n; k++) {
+            cumulative[k] /= sum;
+        }
+    }
+
+    int next() {
+        double u = ThreadLocalRandom.current().nextDouble();
+        int low = 0;
+        int high = cumulative.length - 1;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (cumulative[mid] < u) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+}
@@ -4,6 +4,7 @@ import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.StringRedisTemplate;
 import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
 
@@ -20,9 +21,24 @@ public class RedisConfig {
         template.setValueSerializer(new GenericJackson2JsonRedisSerializer());
         template.setHashValueSerializer(new GenericJackson2JsonRedisSerializer());
 
-        template.setEnableTransactionSupport(true);
+        // Sem suporte a transação: dentro de @Transactional os comandos seriam enfileirados em MULTI
+        // e o script de score não devolveria a nova posição do usuário
+        template.setEnableTransactionSupport(false);
         template.afterPropertiesSet();
 
         return template;
     }
+
+    /**
+     * Template dos leaderboards: membros, scores e argumentos dos scripts como texto UTF-8 puro,
+     * sem Jackson nem metadados JSON no caminho de leitura/escrita
+     */
+    @Bean
+    public StringRedisTemplate leaderboardRedisTemplate(RedisConnectionFactory connectionFactory) {
+        StringRedisTemplate template = new StringRedisTemplate(connectionFactory);
+
+        // Mesmo motivo do template acima: o script de score precisa devolver a posição na hora
+        template.setEnableTransactionSupport(false);
+        return template;
+    }
 }
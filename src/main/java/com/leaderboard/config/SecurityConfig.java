@@ -4,7 +4,9 @@ package com.leaderboard.config;
 import com.leaderboard.security.CustomUserDetailsService;
 import com.leaderboard.security.JwtAuthenticationEntryPoint;
 import com.leaderboard.security.JwtAuthenticationFilter;
+import com.leaderboard.security.JwtTokenProvider;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -36,9 +38,19 @@ public class SecurityConfig {
     @Autowired
     private JwtAuthenticationEntryPoint unauthorizedHandler;
 
+    @Autowired
+    private JwtTokenProvider tokenProvider;
+
+    @Value("${jwt.stateless-principal.enabled:false}")
+    private boolean statelessPrincipal;
+
+    // Porta do actuator (management.server), ligada só à interface interna
+    @Value("${management.server.port:8081}")
+    private int managementPort;
+
     @Bean
     public JwtAuthenticationFilter jwtAuthenticationFilter() {
-        return new JwtAuthenticationFilter();
+        return new JwtAuthenticationFilter(tokenProvider, userDetailsService, statelessPrincipal);
     }
 
     @Bean
@@ -91,6 +103,9 @@ public class SecurityConfig {
                         .requestMatchers("/api/leaderboard/public/**").permitAll()
                         .requestMatchers("/v3/api-docs/**", "/swagger-ui/**", "/swagger-ui.html").permitAll()
                         .requestMatchers("/actuator/health").permitAll()
+                        // Métricas sem autenticação só na porta interna do actuator, nunca na porta da API
+                        .requestMatchers(request -> request.getLocalPort() == managementPort
+                                && "/actuator/prometheus".equals(request.getRequestURI())).permitAll()
                         .anyRequest().authenticated()
                 );
 
@@ -15,6 +15,7 @@ public class WebConfig implements WebMvcConfigurer {
                 .allowedOrigins("*") // ✅ Permitir todas as origens
                 .allowedMethods("GET", "POST", "PUT", "DELETE", "OPTIONS")
                 .allowedHeaders("*")
+                .exposedHeaders("ETag") // If-None-Match nos leaderboards públicos
                 // ✅ CORREÇÃO: Remover allowCredentials
                 // .allowCredentials(true) // REMOVIDO
                 .maxAge(3600);
@@ -1,16 +1,25 @@
 package com.leaderboard.controller;
 
 import com.leaderboard.dto.ApiResponse;
+import com.leaderboard.dto.CursorPage;
 import com.leaderboard.dto.LeaderboardEntry;
+import com.leaderboard.dto.PlayerProfileDto;
 import com.leaderboard.dto.UserRankingDto;
 import com.leaderboard.security.UserPrincipal;
 import com.leaderboard.service.LeaderboardService;
+import com.leaderboard.service.LeaderboardSnapshotService;
+import com.leaderboard.service.LeaderboardStreamService;
 import com.leaderboard.service.UserService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -23,20 +32,94 @@ public class LeaderboardController {
 
     // ✅ CORREÇÃO: Adicionar final
     private final LeaderboardService leaderboardService;
+    private final LeaderboardSnapshotService snapshotService;
+    private final LeaderboardStreamService streamService;
     private final UserService userService;
 
     @GetMapping("/public/global")
-    public ResponseEntity<ApiResponse<List<LeaderboardEntry>>> getGlobalLeaderboard(
-            @RequestParam(defaultValue = "10") int limit) {
+    public ResponseEntity<?> getGlobalLeaderboard(
+            @RequestParam(defaultValue = "10") int limit,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         try {
-            List<LeaderboardEntry> leaderboard = leaderboardService.getGlobalLeaderboard(limit);
-            return ResponseEntity.ok(ApiResponse.success("Leaderboard global carregado", leaderboard));
+            return snapshotResponse(snapshotService.getGlobalSnapshot(limit), ifNoneMatch);
         } catch (Exception e) {
             return ResponseEntity.badRequest()
                     .body(ApiResponse.error("Erro ao carregar leaderboard: " + e.getMessage()));
         }
     }
 
+    @GetMapping("/public/game/{gameId}")
+    public ResponseEntity<?> getGameLeaderboard(
+            @PathVariable Long gameId,
+            @RequestParam(defaultValue = "10") int limit,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        try {
+            return snapshotResponse(snapshotService.getGameSnapshot(gameId, limit), ifNoneMatch);
+        } catch (Exception e) {
+            return ResponseEntity.badRequest()
+                    .body(ApiResponse.error("Erro ao carregar leaderboard do jogo: " + e.getMessage()));
+        }
+    }
+
+    @GetMapping(value = "/public/stream/global", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamGlobalLeaderboard(@RequestParam(defaultValue = "10") int limit) {
+        try {
+            return ResponseEntity.ok(streamService.subscribe(null, limit));
+        } catch (LeaderboardStreamService.SubscriberLimitException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        } catch (IllegalArgumentException e) {
+            // Sem corpo: o cliente pediu text/event-stream, não JSON
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    @GetMapping(value = "/public/stream/game/{gameId}", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamGameLeaderboard(
+            @PathVariable Long gameId,
+            @RequestParam(defaultValue = "10") int limit) {
+        try {
+            return ResponseEntity.ok(streamService.subscribe(gameId, limit));
+        } catch (LeaderboardStreamService.SubscriberLimitException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    /**
+     * Devolve o JSON pré-serializado do snapshot, ou 304 se o cliente já tem esta versão
+     */
+    private ResponseEntity<?> snapshotResponse(LeaderboardSnapshotService.Snapshot snapshot, String ifNoneMatch) {
+        if (matchesEtag(ifNoneMatch, snapshot.getEtag())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(snapshot.getEtag())
+                    .cacheControl(CacheControl.noCache())
+                    .build();
+        }
+
+        return ResponseEntity.ok()
+                .eTag(snapshot.getEtag())
+                .cacheControl(CacheControl.noCache())
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(snapshot.getBody());
+    }
+
+    // If-None-Match pode trazer vários ETags separados por vírgula, fracos (W/) ou "*"
+    private static boolean matchesEtag(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null || ifNoneMatch.isBlank()) return false;
+
+        for (String candidate : ifNoneMatch.split(",")) {
+            String value = candidate.trim();
+            if (value.startsWith("W/")) {
+                value = value.substring(2);
+            }
+            if (value.equals("*") || value.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     @GetMapping("/my/ranking")
     public ResponseEntity<ApiResponse<UserRankingDto>> getMyRanking(
             @AuthenticationPrincipal UserPrincipal userPrincipal) {
@@ -74,6 +157,55 @@ public class LeaderboardController {
         }
     }
 
+    @GetMapping("/my/profile")
+    public ResponseEntity<ApiResponse<PlayerProfileDto>> getMyProfile(@AuthenticationPrincipal UserPrincipal userPrincipal) {
+        try {
+            PlayerProfileDto profile = leaderboardService.getPlayerProfile(userPrincipal.getUsername());
+            return ResponseEntity.ok(ApiResponse.success("Perfil do jogador", profile));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest()
+                    .body(ApiResponse.error("Erro ao carregar perfil: " + e.getMessage()));
+        }
+    }
+
+    @GetMapping("/my/neighbors")
+    public ResponseEntity<ApiResponse<List<LeaderboardEntry>>> getMyNeighbors(
+            @AuthenticationPrincipal UserPrincipal userPrincipal,
+            @RequestParam(defaultValue = "5") int neighbors) {
+        try {
+            if (neighbors < 1 || neighbors > 50) {
+                return ResponseEntity.badRequest()
+                        .body(ApiResponse.error("Parâmetros inválidos. Neighbors deve estar entre 1 e 50"));
+            }
+
+            List<LeaderboardEntry> entries = leaderboardService.getUserNeighbors(userPrincipal.getUsername(), neighbors);
+            return ResponseEntity.ok(ApiResponse.success("Jogadores próximos no ranking global", entries));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest()
+                    .body(ApiResponse.error("Erro ao carregar jogadores próximos: " + e.getMessage()));
+        }
+    }
+
+    @GetMapping("/my/neighbors/game/{gameId}")
+    public ResponseEntity<ApiResponse<List<LeaderboardEntry>>> getMyGameNeighbors(
+            @AuthenticationPrincipal UserPrincipal userPrincipal,
+            @PathVariable Long gameId,
+            @RequestParam(defaultValue = "5") int neighbors) {
+        try {
+            if (neighbors < 1 || neighbors > 50) {
+                return ResponseEntity.badRequest()
+                        .body(ApiResponse.error("Parâmetros inválidos. Neighbors deve estar entre 1 e 50"));
+            }
+
+            List<LeaderboardEntry> entries =
+                    leaderboardService.getUserGameNeighbors(gameId, userPrincipal.getUsername(), neighbors);
+            return ResponseEntity.ok(ApiResponse.success("Jogadores próximos no ranking do jogo", entries));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest()
+                    .body(ApiResponse.error("Erro ao carregar jogadores próximos do jogo: " + e.getMessage()));
+        }
+    }
+
     @GetMapping("/range/global")
     public ResponseEntity<ApiResponse<List<LeaderboardEntry>>> getGlobalRankRange(
             @RequestParam int start,
@@ -111,6 +243,43 @@ public class LeaderboardController {
         }
     }
 
+    @GetMapping("/range/global/cursor")
+    public ResponseEntity<ApiResponse<CursorPage<LeaderboardEntry>>> getGlobalRankRangeByCursor(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int size) {
+        try {
+            if (size < 1 || size > 100) {
+                return ResponseEntity.badRequest()
+                        .body(ApiResponse.error("Parâmetros inválidos. Size deve estar entre 1 e 100"));
+            }
+
+            CursorPage<LeaderboardEntry> entries = leaderboardService.getGlobalLeaderboardAfter(cursor, size);
+            return ResponseEntity.ok(ApiResponse.success("Faixa do ranking global", entries));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest()
+                    .body(ApiResponse.error("Erro ao carregar faixa do ranking: " + e.getMessage()));
+        }
+    }
+
+    @GetMapping("/range/game/{gameId}/cursor")
+    public ResponseEntity<ApiResponse<CursorPage<LeaderboardEntry>>> getGameRankRangeByCursor(
+            @PathVariable Long gameId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int size) {
+        try {
+            if (size < 1 || size > 100) {
+                return ResponseEntity.badRequest()
+                        .body(ApiResponse.error("Parâmetros inválidos. Size deve estar entre 1 e 100"));
+            }
+
+            CursorPage<LeaderboardEntry> entries = leaderboardService.getGameLeaderboardAfter(gameId, cursor, size);
+            return ResponseEntity.ok(ApiResponse.success("Faixa do ranking do jogo", entries));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest()
+                    .body(ApiResponse.error("Erro ao carregar faixa do ranking do jogo: " + e.getMessage()));
+        }
+    }
+
     @GetMapping("/top-performers")
     public ResponseEntity<ApiResponse<List<LeaderboardEntry>>> getTopPerformersInPeriod(
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
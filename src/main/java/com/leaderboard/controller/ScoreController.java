@@ -1,6 +1,9 @@
 package com.leaderboard.controller;
 
 import com.leaderboard.dto.ApiResponse;
+import com.leaderboard.dto.BatchScoreResult;
+import com.leaderboard.dto.BatchScoreSubmissionRequest;
+import com.leaderboard.dto.CursorPage;
 import com.leaderboard.dto.ScoreDto;
 import com.leaderboard.dto.ScoreSubmissionRequest;
 import com.leaderboard.security.UserPrincipal;
@@ -8,6 +11,7 @@ import com.leaderboard.service.ScoreService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
@@ -36,6 +40,26 @@ public class ScoreController {
         }
     }
 
+    @PostMapping("/submit/batch")
+    public ResponseEntity<ApiResponse<List<BatchScoreResult>>> submitScores(
+            @AuthenticationPrincipal UserPrincipal userPrincipal,
+            @Valid @RequestBody BatchScoreSubmissionRequest request) {
+        if (!scoreService.canSubmitBatch(userPrincipal.getUsername())) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN)
+                    .body(ApiResponse.error("Usuário não autorizado a submeter scores em lote"));
+        }
+
+        try {
+            List<BatchScoreResult> results = scoreService.submitScores(request.getScores());
+            long accepted = results.stream().filter(BatchScoreResult::isSuccess).count();
+            return ResponseEntity.ok(ApiResponse.success(
+                    accepted + " de " + results.size() + " scores submetidos", results));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest()
+                    .body(ApiResponse.error("Erro ao submeter scores: " + e.getMessage()));
+        }
+    }
+
     @GetMapping("/my")
     public ResponseEntity<ApiResponse<List<ScoreDto>>> getMyScores(
             @AuthenticationPrincipal UserPrincipal userPrincipal) {
@@ -101,6 +125,43 @@ public class ScoreController {
         }
     }
 
+    @GetMapping("/top/global/cursor")
+    public ResponseEntity<ApiResponse<CursorPage<ScoreDto>>> getTopGlobalScoresByCursor(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") int size) {
+        try {
+            if (size < 1 || size > 100) {
+                return ResponseEntity.badRequest()
+                        .body(ApiResponse.error("Parâmetros inválidos. Size deve estar entre 1 e 100"));
+            }
+
+            CursorPage<ScoreDto> scores = scoreService.getTopScoresGlobalAfter(cursor, size);
+            return ResponseEntity.ok(ApiResponse.success("Top scores globais carregados", scores));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest()
+                    .body(ApiResponse.error("Erro ao carregar top scores: " + e.getMessage()));
+        }
+    }
+
+    @GetMapping("/top/game/{gameId}/cursor")
+    public ResponseEntity<ApiResponse<CursorPage<ScoreDto>>> getTopGameScoresByCursor(
+            @PathVariable Long gameId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") int size) {
+        try {
+            if (size < 1 || size > 100) {
+                return ResponseEntity.badRequest()
+                        .body(ApiResponse.error("Parâmetros inválidos. Size deve estar entre 1 e 100"));
+            }
+
+            CursorPage<ScoreDto> scores = scoreService.getTopScoresByGameAfter(gameId, cursor, size);
+            return ResponseEntity.ok(ApiResponse.success("Top scores do jogo carregados", scores));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest()
+                    .body(ApiResponse.error("Erro ao carregar top scores do jogo: " + e.getMessage()));
+        }
+    }
+
     @GetMapping("/recent")
     public ResponseEntity<ApiResponse<List<ScoreDto>>> getRecentScores(
             @RequestParam(defaultValue = "10") int limit) {
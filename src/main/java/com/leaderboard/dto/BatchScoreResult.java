@@ -0,0 +1,24 @@
+package com.leaderboard.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Resultado de um item do lote, na mesma posição em que ele foi enviado
+ */
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+
+public class BatchScoreResult {
+    private String username;
+    private Long gameId;
+    private Integer score;
+    private boolean success;
+    private Long scoreId;
+    private Long gameRank;
+    private String error;
+}
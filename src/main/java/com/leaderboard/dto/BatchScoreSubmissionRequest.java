@@ -0,0 +1,43 @@
+package com.leaderboard.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+
+public class BatchScoreSubmissionRequest {
+
+    @NotEmpty(message = "Lista de scores é obrigatoria")
+    @Size(max = 500, message = "Máximo de 500 scores por lote")
+    private List<@Valid Item> scores;
+
+    @AllArgsConstructor
+    @NoArgsConstructor
+    @Getter
+    @Setter
+    public static class Item {
+
+        @NotBlank(message = "Username é obrigatorio")
+        private String username;
+
+        @NotNull(message = "Game ID é obrigatorio")
+        private Long gameId;
+
+        @NotNull(message = "Score é obrigatorio")
+        @Min(value = 0, message = "Score debe ser maior ou igual a 0")
+        private Integer score;
+    }
+}
@@ -0,0 +1,22 @@
+package com.leaderboard.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+/**
+ * Página de uma listagem por cursor. nextCursor é null na última página
+ */
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+
+public class CursorPage<T> {
+    private List<T> content;
+    private String nextCursor;
+    private boolean hasNext;
+}
@@ -0,0 +1,18 @@
+package com.leaderboard.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+
+public class GameStandingDto {
+    private Long gameId;
+    private String gameName;
+    private Long rank;
+    private Integer score;
+}
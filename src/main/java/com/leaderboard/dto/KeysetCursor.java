@@ -0,0 +1,51 @@
+package com.leaderboard.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Cursor opaco da paginação por keyset: última (chave de ordenação, desempate) devolvida e a posição dela no ranking.
+ * Nas listagens de scores a chave é o score e o desempate o id; nos leaderboards, a rank_key e o username.
+ * O cliente recebe o valor codificado em Base64 e o reenvia para buscar a próxima página.
+ */
+@AllArgsConstructor
+@Getter
+public class KeysetCursor {
+    private final Long sortKey;
+    private final String tiebreak;
+    private final long position;
+
+    public KeysetCursor(Long sortKey, Long id, long position) {
+        this(sortKey, String.valueOf(id), position);
+    }
+
+    /**
+     * Desempate numérico (id do score)
+     */
+    public Long getId() {
+        try {
+            return Long.valueOf(tiebreak);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Cursor inválido");
+        }
+    }
+
+    // O desempate vai por último: um username pode conter ':'
+    public String encode() {
+        String raw = sortKey + ":" + position + ":" + tiebreak;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static KeysetCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = raw.split(":", 3);
+            return new KeysetCursor(Long.valueOf(parts[0]), parts[2], Long.parseLong(parts[1]));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Cursor inválido");
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package com.leaderboard.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+/**
+ * Mudanças no top N de um leaderboard desde o último envio do stream
+ */
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+
+public class LeaderboardDelta {
+    private Long gameId;
+    private List<LeaderboardEntry> entered;
+    private List<String> left;
+    private List<LeaderboardEntry> moved;
+}
@@ -0,0 +1,20 @@
+package com.leaderboard.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+
+public class PlayerProfileDto {
+    private String username;
+    private Long globalRank;
+    private Integer globalScore;
+    private List<GameStandingDto> games;
+}
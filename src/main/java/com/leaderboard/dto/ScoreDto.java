@@ -18,4 +18,12 @@ public class ScoreDto {
     private String gameName;
     private Integer score;
     private LocalDateTime submittedAt;
+
+    // true quando o score foi aceito pelo write-behind e ainda aguarda gravação: id fica null
+    private boolean pending;
+
+    // Usado pelas consultas JPQL, que só retornam scores já gravados
+    public ScoreDto(Long id, String username, String gameName, Integer score, LocalDateTime submittedAt) {
+        this(id, username, gameName, score, submittedAt, false);
+    }
 }
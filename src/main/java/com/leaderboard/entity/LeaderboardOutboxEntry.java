@@ -0,0 +1,75 @@
+package com.leaderboard.entity;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Atualização de leaderboard que não chegou ao Redis, guardada até ser reenviada.
+ * A ordem de inserção (id) é a ordem do replay.
+ */
+@Entity
+@Table(name = "leaderboard_outbox")
+public class LeaderboardOutboxEntry {
+
+    // Sequência com pooled optimizer: os lotes de uma submissão em lote viram INSERTs em batch
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "leaderboard_outbox_seq")
+    @SequenceGenerator(name = "leaderboard_outbox_seq", sequenceName = "leaderboard_outbox_id_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "game_id", nullable = false)
+    private Long gameId;
+
+    @Column(nullable = false, length = 50)
+    private String username;
+
+    @Column(nullable = false)
+    private Integer score;
+
+    @Column(name = "achieved_at")
+    private LocalDateTime achievedAt;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    // Construtor padrão (obrigatório para JPA)
+    public LeaderboardOutboxEntry() {}
+
+    public LeaderboardOutboxEntry(Long gameId, String username, Integer score, LocalDateTime achievedAt) {
+        this.gameId = gameId;
+        this.username = username;
+        this.score = score;
+        this.achievedAt = achievedAt;
+        this.createdAt = LocalDateTime.now();
+    }
+
+    // Getters e Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public Long getGameId() { return gameId; }
+    public void setGameId(Long gameId) { this.gameId = gameId; }
+
+    public String getUsername() { return username; }
+    public void setUsername(String username) { this.username = username; }
+
+    public Integer getScore() { return score; }
+    public void setScore(Integer score) { this.score = score; }
+
+    public LocalDateTime getAchievedAt() { return achievedAt; }
+    public void setAchievedAt(LocalDateTime achievedAt) { this.achievedAt = achievedAt; }
+
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+
+    @Override
+    public String toString() {
+        return "LeaderboardOutboxEntry{" +
+                "id=" + id +
+                ", gameId=" + gameId +
+                ", username='" + username + '\'' +
+                ", score=" + score +
+                '}';
+    }
+}
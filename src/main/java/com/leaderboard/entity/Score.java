@@ -4,21 +4,22 @@ package com.leaderboard.entity;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotNull;
-import org.springframework.data.annotation.CreatedDate;
-import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 
 import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "scores", indexes = {
         @Index(name = "idx_user_game", columnList = "user_id, game_id"),
-        @Index(name = "idx_game_score", columnList = "game_id, score")
+        @Index(name = "idx_game_score", columnList = "game_id, score DESC, id DESC"),
+        @Index(name = "idx_score_id", columnList = "score DESC, id DESC"),
+        @Index(name = "idx_submitted_at", columnList = "submitted_at")
 })
-@EntityListeners(AuditingEntityListener.class)
 public class Score {
 
+    // Sequência com pooled optimizer: IDENTITY desabilita o batch de INSERTs do Hibernate
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "score_seq")
+    @SequenceGenerator(name = "score_seq", sequenceName = "scores_id_seq", allocationSize = 50)
     private Long id;
 
     @NotNull
@@ -35,7 +36,6 @@ public class Score {
     @Column(nullable = false)
     private Integer score;
 
-    @CreatedDate
     @Column(name = "submitted_at", nullable = false, updatable = false)
     private LocalDateTime submittedAt;
 
@@ -49,7 +49,7 @@ public class Score {
         this.user = user;
         this.game = game;
         this.score = score;
-        // submittedAt será definido automaticamente pelo @CreatedDate
+        // submittedAt será definido no @PrePersist se não for informado
     }
 
     // Construtor completo (opcional, para testes)
@@ -61,6 +61,14 @@ public class Score {
         this.submittedAt = submittedAt;
     }
 
+    // Mantém o horário já definido (ex.: submissões gravadas em lote pelo write-behind)
+    @PrePersist
+    void onCreate() {
+        if (submittedAt == null) {
+            submittedAt = LocalDateTime.now();
+        }
+    }
+
     // Getters e Setters
     public Long getId() { return id; }
     public void setId(Long id) { this.id = id; }
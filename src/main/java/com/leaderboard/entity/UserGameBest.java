@@ -0,0 +1,83 @@
+package com.leaderboard.entity;
+
+import com.leaderboard.service.ScoreOrdering;
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Melhor score de cada usuário em cada jogo, mantido por upsert a cada submissão.
+ * É a base das consultas de leaderboard no banco, no lugar de agregações sobre a tabela scores.
+ */
+@Entity
+@Table(name = "user_game_best", indexes = {
+        @Index(name = "idx_game_best_rank", columnList = "game_id, rank_key DESC, username DESC")
+})
+@IdClass(UserGameBestId.class)
+public class UserGameBest {
+
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Id
+    @Column(name = "game_id")
+    private Long gameId;
+
+    // Cópia do username para o desempate: com collation binária (ucs_basic), o ORDER BY por
+    // (rank_key, username) segue a ordem do Redis e percorre o índice, sem JOIN com users
+    @Column(name = "username", nullable = false, columnDefinition = "varchar(50) collate \"ucs_basic\"")
+    private String username;
+
+    @Column(name = "best_score", nullable = false)
+    private Integer bestScore;
+
+    @Column(name = "achieved_at", nullable = false)
+    private LocalDateTime achievedAt;
+
+    // Score + momento em que foi alcançado (ScoreOrdering): define a ordem, inclusive nos empates
+    @Column(name = "rank_key", nullable = false)
+    private Long rankKey;
+
+    // Construtor padrão (obrigatório para JPA)
+    public UserGameBest() {}
+
+    public UserGameBest(Long userId, Long gameId, String username, Integer bestScore, LocalDateTime achievedAt) {
+        this.userId = userId;
+        this.gameId = gameId;
+        this.username = username;
+        this.bestScore = bestScore;
+        this.achievedAt = achievedAt;
+        this.rankKey = ScoreOrdering.rankKey(bestScore, achievedAt);
+    }
+
+    // Getters e Setters
+    public Long getUserId() { return userId; }
+    public void setUserId(Long userId) { this.userId = userId; }
+
+    public Long getGameId() { return gameId; }
+    public void setGameId(Long gameId) { this.gameId = gameId; }
+
+    public String getUsername() { return username; }
+    public void setUsername(String username) { this.username = username; }
+
+    public Integer getBestScore() { return bestScore; }
+    public void setBestScore(Integer bestScore) { this.bestScore = bestScore; }
+
+    public LocalDateTime getAchievedAt() { return achievedAt; }
+    public void setAchievedAt(LocalDateTime achievedAt) { this.achievedAt = achievedAt; }
+
+    public Long getRankKey() { return rankKey; }
+    public void setRankKey(Long rankKey) { this.rankKey = rankKey; }
+
+    @Override
+    public String toString() {
+        return "UserGameBest{" +
+                "userId=" + userId +
+                ", gameId=" + gameId +
+                ", username='" + username + '\'' +
+                ", bestScore=" + bestScore +
+                ", achievedAt=" + achievedAt +
+                '}';
+    }
+}
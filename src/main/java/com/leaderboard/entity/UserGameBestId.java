@@ -0,0 +1,34 @@
+package com.leaderboard.entity;
+
+import java.io.Serializable;
+import java.util.Objects;
+
+// Chave composta de UserGameBest
+public class UserGameBestId implements Serializable {
+
+    private Long userId;
+    private Long gameId;
+
+    public UserGameBestId() {}
+
+    public UserGameBestId(Long userId, Long gameId) {
+        this.userId = userId;
+        this.gameId = gameId;
+    }
+
+    public Long getUserId() { return userId; }
+    public Long getGameId() { return gameId; }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) return true;
+        if (obj == null || getClass() != obj.getClass()) return false;
+        UserGameBestId other = (UserGameBestId) obj;
+        return Objects.equals(userId, other.userId) && Objects.equals(gameId, other.gameId);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(userId, gameId);
+    }
+}
@@ -0,0 +1,72 @@
+package com.leaderboard.entity;
+
+import com.leaderboard.service.ScoreOrdering;
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Projeção global: melhor score de cada usuário considerando todos os jogos.
+ */
+@Entity
+@Table(name = "user_global_best", indexes = {
+        @Index(name = "idx_global_best_rank", columnList = "rank_key DESC, username DESC")
+})
+public class UserGlobalBest {
+
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    // Cópia do username para o desempate: com collation binária (ucs_basic), o ORDER BY por
+    // (rank_key, username) segue a ordem do Redis e percorre o índice, sem JOIN com users
+    @Column(name = "username", nullable = false, columnDefinition = "varchar(50) collate \"ucs_basic\"")
+    private String username;
+
+    @Column(name = "best_score", nullable = false)
+    private Integer bestScore;
+
+    @Column(name = "achieved_at", nullable = false)
+    private LocalDateTime achievedAt;
+
+    // Score + momento em que foi alcançado (ScoreOrdering): define a ordem, inclusive nos empates
+    @Column(name = "rank_key", nullable = false)
+    private Long rankKey;
+
+    // Construtor padrão (obrigatório para JPA)
+    public UserGlobalBest() {}
+
+    public UserGlobalBest(Long userId, String username, Integer bestScore, LocalDateTime achievedAt) {
+        this.userId = userId;
+        this.username = username;
+        this.bestScore = bestScore;
+        this.achievedAt = achievedAt;
+        this.rankKey = ScoreOrdering.rankKey(bestScore, achievedAt);
+    }
+
+    // Getters e Setters
+    public Long getUserId() { return userId; }
+    public void setUserId(Long userId) { this.userId = userId; }
+
+    public String getUsername() { return username; }
+    public void setUsername(String username) { this.username = username; }
+
+    public Integer getBestScore() { return bestScore; }
+    public void setBestScore(Integer bestScore) { this.bestScore = bestScore; }
+
+    public LocalDateTime getAchievedAt() { return achievedAt; }
+    public void setAchievedAt(LocalDateTime achievedAt) { this.achievedAt = achievedAt; }
+
+    public Long getRankKey() { return rankKey; }
+    public void setRankKey(Long rankKey) { this.rankKey = rankKey; }
+
+    @Override
+    public String toString() {
+        return "UserGlobalBest{" +
+                "userId=" + userId +
+                ", username='" + username + '\'' +
+                ", bestScore=" + bestScore +
+                ", achievedAt=" + achievedAt +
+                '}';
+    }
+}
@@ -0,0 +1,17 @@
+package com.leaderboard.repository;
+
+import com.leaderboard.entity.LeaderboardOutboxEntry;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface LeaderboardOutboxRepository extends JpaRepository<LeaderboardOutboxEntry, Long> {
+
+    // Mais antigas primeiro, pela chave primária (sem índice extra)
+    @Query("SELECT e FROM LeaderboardOutboxEntry e ORDER BY e.id")
+    List<LeaderboardOutboxEntry> findOldest(Pageable pageable);
+}
@@ -0,0 +1,18 @@
+package com.leaderboard.repository;
+
+import java.time.LocalDateTime;
+
+/**
+ * Projeção de uma linha de leaderboard lida das tabelas de melhor score
+ */
+public interface LeaderboardRow {
+    Long getUserId();
+
+    String getUsername();
+
+    Integer getScore();
+
+    LocalDateTime getAchievedAt();
+
+    Long getRankKey();
+}
@@ -1,31 +1,56 @@
 // ScoreRepository.java - VERSÃO FINAL CORRIGIDA
 package com.leaderboard.repository;
 
+import com.leaderboard.dto.ScoreDto;
 import com.leaderboard.entity.Game;
 import com.leaderboard.entity.Score;
 import com.leaderboard.entity.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface ScoreRepository extends JpaRepository<Score, Long> {
 
+    // As listagens projetam direto em ScoreDto: usuário e jogo vêm no mesmo SELECT,
+    // sem inicializar as associações LAZY linha a linha
+
     // Buscar scores por usuário
-    List<Score> findByUserOrderByScoreDesc(User user);
+    @Query("""
+        SELECT new com.leaderboard.dto.ScoreDto(s.id, u.username, g.name, s.score, s.submittedAt)
+        FROM Score s JOIN s.user u JOIN s.game g
+        WHERE s.user = :user
+        ORDER BY s.score DESC
+        """)
+    List<ScoreDto> findByUserOrderByScoreDesc(@Param("user") User user);
 
-    List<Score> findByUserAndGameOrderByScoreDesc(User user, Game game);
+    @Query("""
+        SELECT new com.leaderboard.dto.ScoreDto(s.id, u.username, g.name, s.score, s.submittedAt)
+        FROM Score s JOIN s.user u JOIN s.game g
+        WHERE s.user = :user AND s.game = :game
+        ORDER BY s.score DESC
+        """)
+    List<ScoreDto> findByUserAndGameOrderByScoreDesc(@Param("user") User user, @Param("game") Game game);
 
     // Buscar melhor score de um usuário em um jogo
-    @Query("SELECT s FROM Score s WHERE s.user = :user AND s.game = :game ORDER BY s.score DESC LIMIT 1")
-    Optional<Score> findTopByUserAndGameOrderByScoreDesc(@Param("user") User user, @Param("game") Game game);
+    @Query("""
+        SELECT new com.leaderboard.dto.ScoreDto(s.id, u.username, g.name, s.score, s.submittedAt)
+        FROM Score s JOIN s.user u JOIN s.game g
+        WHERE s.user = :user AND s.game = :game
+        ORDER BY s.score DESC LIMIT 1
+        """)
+    Optional<ScoreDto> findTopByUserAndGameOrderByScoreDesc(@Param("user") User user, @Param("game") Game game);
 
     // Buscar scores por jogo
     List<Score> findByGameOrderByScoreDesc(Game game);
@@ -33,29 +58,63 @@ public interface ScoreRepository extends JpaRepository<Score, Long> {
     Page<Score> findByGameOrderByScoreDesc(Game game, Pageable pageable);
 
     // Top scores globais
-    @Query("SELECT s FROM Score s ORDER BY s.score DESC")
-    Page<Score> findTopScoresGlobal(Pageable pageable);
+    @Query(value = """
+        SELECT new com.leaderboard.dto.ScoreDto(s.id, u.username, g.name, s.score, s.submittedAt)
+        FROM Score s JOIN s.user u JOIN s.game g
+        ORDER BY s.score DESC
+        """,
+            countQuery = "SELECT COUNT(s) FROM Score s")
+    Page<ScoreDto> findTopScoresGlobal(Pageable pageable);
 
     // Top scores por jogo
-    @Query("SELECT s FROM Score s WHERE s.game = :game ORDER BY s.score DESC")
-    Page<Score> findTopScoresByGame(@Param("game") Game game, Pageable pageable);
+    @Query(value = """
+        SELECT new com.leaderboard.dto.ScoreDto(s.id, u.username, g.name, s.score, s.submittedAt)
+        FROM Score s JOIN s.user u JOIN s.game g
+        WHERE s.game = :game
+        ORDER BY s.score DESC
+        """,
+            countQuery = "SELECT COUNT(s) FROM Score s WHERE s.game = :game")
+    Page<ScoreDto> findTopScoresByGame(@Param("game") Game game, Pageable pageable);
 
-    // Ranking global - melhor score por usuário
+    // Top scores globais por keyset - primeira página, sem query de COUNT
     @Query("""
-        SELECT s FROM Score s 
-        WHERE s.score = (SELECT MAX(s2.score) FROM Score s2 WHERE s2.user = s.user)
-        ORDER BY s.score DESC
+        SELECT new com.leaderboard.dto.ScoreDto(s.id, u.username, g.name, s.score, s.submittedAt)
+        FROM Score s JOIN s.user u JOIN s.game g
+        ORDER BY s.score DESC, s.id DESC
         """)
-    Page<Score> findGlobalLeaderboard(Pageable pageable);
+    List<ScoreDto> findTopScoresGlobalFirst(Pageable pageable);
 
-    // Ranking por jogo - melhor score por usuário
+    // Top scores globais por keyset - página seguinte ao último (score, id) visto.
+    // O "s.score <= :score" redundante dá ao índice (score DESC, id DESC) o limite do seek
     @Query("""
-        SELECT s FROM Score s 
-        WHERE s.game = :game 
-        AND s.score = (SELECT MAX(s2.score) FROM Score s2 WHERE s2.user = s.user AND s2.game = :game)
-        ORDER BY s.score DESC
+        SELECT new com.leaderboard.dto.ScoreDto(s.id, u.username, g.name, s.score, s.submittedAt)
+        FROM Score s JOIN s.user u JOIN s.game g
+        WHERE s.score <= :score AND (s.score < :score OR s.id < :id)
+        ORDER BY s.score DESC, s.id DESC
         """)
-    Page<Score> findGameLeaderboard(@Param("game") Game game, Pageable pageable);
+    List<ScoreDto> findTopScoresGlobalAfter(@Param("score") Integer score, @Param("id") Long id, Pageable pageable);
+
+    // Top scores por jogo por keyset - primeira página
+    @Query("""
+        SELECT new com.leaderboard.dto.ScoreDto(s.id, u.username, g.name, s.score, s.submittedAt)
+        FROM Score s JOIN s.user u JOIN s.game g
+        WHERE s.game.id = :gameId
+        ORDER BY s.score DESC, s.id DESC
+        """)
+    List<ScoreDto> findTopScoresByGameFirst(@Param("gameId") Long gameId, Pageable pageable);
+
+    // Top scores por jogo por keyset - página seguinte ao último (score, id) visto
+    @Query("""
+        SELECT new com.leaderboard.dto.ScoreDto(s.id, u.username, g.name, s.score, s.submittedAt)
+        FROM Score s JOIN s.user u JOIN s.game g
+        WHERE s.game.id = :gameId
+        AND s.score <= :score AND (s.score < :score OR s.id < :id)
+        ORDER BY s.score DESC, s.id DESC
+        """)
+    List<ScoreDto> findTopScoresByGameAfter(@Param("gameId") Long gameId,
+                                            @Param("score") Integer score,
+                                            @Param("id") Long id,
+                                            Pageable pageable);
 
     // Estatísticas do usuário
     @Query("""
@@ -76,39 +135,21 @@ public interface ScoreRepository extends JpaRepository<Score, Long> {
         """)
     Object[] findUserStatisticsForGame(@Param("user") User user, @Param("game") Game game);
 
-    // Encontrar posição do usuário no ranking global
-    @Query(value = """
-        WITH ranked_users AS (
-            SELECT DISTINCT u.id as user_id, 
-                   MAX(s.score) as best_score,
-                   RANK() OVER (ORDER BY MAX(s.score) DESC) as rank
-            FROM scores s
-            JOIN users u ON s.user_id = u.id
-            GROUP BY u.id
-        )
-        SELECT rank FROM ranked_users WHERE user_id = :userId
-        """, nativeQuery = true)
-    Optional<Long> findUserGlobalRank(@Param("userId") Long userId);
-
-    // Encontrar posição do usuário no ranking do jogo
-    @Query(value = """
-        WITH ranked_users AS (
-            SELECT DISTINCT u.id as user_id, 
-                   MAX(s.score) as best_score,
-                   RANK() OVER (ORDER BY MAX(s.score) DESC) as rank
-            FROM scores s
-            JOIN users u ON s.user_id = u.id
-            WHERE s.game_id = :gameId
-            GROUP BY u.id
-        )
-        SELECT rank FROM ranked_users WHERE user_id = :userId
-        """, nativeQuery = true)
-    Optional<Long> findUserRankInGame(@Param("userId") Long userId, @Param("gameId") Long gameId);
-
     // Scores recentes
-    List<Score> findTop10ByOrderBySubmittedAtDesc();
+    @Query("""
+        SELECT new com.leaderboard.dto.ScoreDto(s.id, u.username, g.name, s.score, s.submittedAt)
+        FROM Score s JOIN s.user u JOIN s.game g
+        ORDER BY s.submittedAt DESC
+        """)
+    List<ScoreDto> findRecentScores(Pageable pageable);
 
-    List<Score> findTop10ByGameOrderBySubmittedAtDesc(Game game);
+    @Query("""
+        SELECT new com.leaderboard.dto.ScoreDto(s.id, u.username, g.name, s.score, s.submittedAt)
+        FROM Score s JOIN s.user u JOIN s.game g
+        WHERE s.game = :game
+        ORDER BY s.submittedAt DESC
+        """)
+    List<ScoreDto> findRecentScoresByGame(@Param("game") Game game, Pageable pageable);
 
     // Scores em um período
     List<Score> findBySubmittedAtBetweenOrderByScoreDesc(LocalDateTime startDate, LocalDateTime endDate);
@@ -120,13 +161,18 @@ public interface ScoreRepository extends JpaRepository<Score, Long> {
             @Param("endDate") LocalDateTime endDate
     );
 
-    // Top performers em um período
-    @Query("""
-        SELECT s.user, MAX(s.score) as bestScore, COUNT(s) as totalScores, AVG(s.score) as avgScore
-        FROM Score s 
+    // Top performers em um período - só o username é lido, sem carregar a entidade User
+    @Query(value = """
+        SELECT u.username, MAX(s.score) as bestScore, COUNT(s) as totalScores, AVG(s.score) as avgScore
+        FROM Score s JOIN s.user u
         WHERE s.submittedAt BETWEEN :startDate AND :endDate
-        GROUP BY s.user
+        GROUP BY u.id, u.username
         ORDER BY MAX(s.score) DESC
+        """,
+            countQuery = """
+        SELECT COUNT(DISTINCT s.user)
+        FROM Score s
+        WHERE s.submittedAt BETWEEN :startDate AND :endDate
         """)
     Page<Object[]> findTopPerformersInPeriod(
             @Param("startDate") LocalDateTime startDate,
@@ -150,6 +196,9 @@ public interface ScoreRepository extends JpaRepository<Score, Long> {
             @Param("endOfDay") LocalDateTime endOfDay
     );
 
+    // Total de scores de um jogo (COUNT no banco, sem carregar a coleção Game.scores)
+    long countByGame(Game game);
+
     // Contar total de jogadores únicos
     @Query("SELECT COUNT(DISTINCT s.user) FROM Score s")
     Long countDistinctPlayers();
@@ -157,4 +206,16 @@ public interface ScoreRepository extends JpaRepository<Score, Long> {
     // Contar total de jogadores únicos por jogo
     @Query("SELECT COUNT(DISTINCT s.user) FROM Score s WHERE s.game = :game")
     Long countDistinctPlayersByGame(@Param("game") Game game);
+
+    // Scores submetidos a partir de um momento (índice em submitted_at), lidos em cursor - exige transação
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("""
+        SELECT g.id AS gameId, u.username AS username, s.score AS score, s.submittedAt AS submittedAt
+        FROM Score s JOIN s.user u JOIN s.game g
+        WHERE s.submittedAt >= :since
+        """)
+    Stream<SubmittedScore> streamSubmittedSince(@Param("since") LocalDateTime since);
 }
@@ -0,0 +1,16 @@
+package com.leaderboard.repository;
+
+import java.time.LocalDateTime;
+
+/**
+ * Projeção de um score submetido, usada para reaplicar nos leaderboards as submissões feitas durante a sincronização
+ */
+public interface SubmittedScore {
+    Long getGameId();
+
+    String getUsername();
+
+    Integer getScore();
+
+    LocalDateTime getSubmittedAt();
+}
@@ -0,0 +1,14 @@
+package com.leaderboard.repository;
+
+import java.time.LocalDateTime;
+
+/**
+ * Projeção com o melhor score de um usuário, usada na carga completa dos leaderboards
+ */
+public interface UserBestScore {
+    String getUsername();
+
+    Integer getBestScore();
+
+    LocalDateTime getAchievedAt();
+}
@@ -0,0 +1,92 @@
+package com.leaderboard.repository;
+
+import com.leaderboard.entity.UserGameBest;
+import com.leaderboard.entity.UserGameBestId;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+@Repository
+public interface UserGameBestRepository extends JpaRepository<UserGameBest, UserGameBestId> {
+
+    // Upsert "keep-max" pela rank_key, como o ZADD GT do Redis: num empate de score fica o alcançado
+    // primeiro, mesmo que as submissões cheguem fora de ordem (ex.: lote do write-behind ou replay)
+    @Modifying
+    @Query(value = """
+        INSERT INTO user_game_best (user_id, game_id, username, best_score, achieved_at, rank_key)
+        VALUES (:userId, :gameId, :username, :score, :achievedAt, :rankKey)
+        ON CONFLICT (user_id, game_id) DO UPDATE
+        SET best_score = excluded.best_score, achieved_at = excluded.achieved_at, rank_key = excluded.rank_key
+        WHERE excluded.rank_key > user_game_best.rank_key
+        """, nativeQuery = true)
+    int upsertBestScore(@Param("userId") Long userId,
+                        @Param("gameId") Long gameId,
+                        @Param("username") String username,
+                        @Param("score") Integer score,
+                        @Param("achievedAt") LocalDateTime achievedAt,
+                        @Param("rankKey") Long rankKey);
+
+    // Ranking por jogo - percorre o índice (game_id, rank_key DESC, username DESC), sem COUNT. Empates
+    // pelo username decrescente em ordem binária (collation da coluna), como o ZREVRANGE do Redis
+    @Query("""
+        SELECT b.userId AS userId, b.username AS username, b.bestScore AS score,
+               b.achievedAt AS achievedAt, b.rankKey AS rankKey
+        FROM UserGameBest b
+        WHERE b.gameId = :gameId
+        ORDER BY b.rankKey DESC, b.username DESC
+        """)
+    List<LeaderboardRow> findLeaderboard(@Param("gameId") Long gameId, Pageable pageable);
+
+    // Ranking por jogo por keyset - página seguinte ao último (rank_key, username) visto
+    @Query("""
+        SELECT b.userId AS userId, b.username AS username, b.bestScore AS score,
+               b.achievedAt AS achievedAt, b.rankKey AS rankKey
+        FROM UserGameBest b
+        WHERE b.gameId = :gameId
+        AND b.rankKey <= :rankKey AND (b.rankKey < :rankKey OR b.username < :username)
+        ORDER BY b.rankKey DESC, b.username DESC
+        """)
+    List<LeaderboardRow> findLeaderboardAfter(@Param("gameId") Long gameId,
+                                              @Param("rankKey") Long rankKey,
+                                              @Param("username") String username,
+                                              Pageable pageable);
+
+    // Posição do usuário no ranking do jogo, na mesma ordem de findLeaderboard. O COUNT é um
+    // index-only scan de (game_id, rank_key, username) até a posição do usuário: custo proporcional ao rank
+    @Query(value = """
+        SELECT (SELECT COUNT(*) FROM user_game_best o
+                WHERE o.game_id = b.game_id AND (o.rank_key, o.username) > (b.rank_key, b.username)) + 1
+        FROM user_game_best b
+        WHERE b.user_id = :userId AND b.game_id = :gameId
+        """, nativeQuery = true)
+    Optional<Long> findUserRank(@Param("userId") Long userId, @Param("gameId") Long gameId);
+
+    // Melhores scores de um usuário em todos os jogos que ele jogou (prefixo da chave primária)
+    List<UserGameBest> findByUserId(Long userId);
+
+    // Total de jogadores com score no jogo
+    long countByGameId(Long gameId);
+
+    // Melhor score de cada usuário em um jogo, lido em cursor - exige transação
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("""
+        SELECT b.username AS username, b.bestScore AS bestScore, b.achievedAt AS achievedAt
+        FROM UserGameBest b
+        WHERE b.gameId = :gameId
+        """)
+    Stream<UserBestScore> streamByGameId(@Param("gameId") Long gameId);
+}
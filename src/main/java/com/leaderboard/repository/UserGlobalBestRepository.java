@@ -0,0 +1,80 @@
+package com.leaderboard.repository;
+
+import com.leaderboard.entity.UserGlobalBest;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+@Repository
+public interface UserGlobalBestRepository extends JpaRepository<UserGlobalBest, Long> {
+
+    // Upsert "keep-max" pela rank_key, como o ZADD GT do Redis: num empate de score fica o alcançado
+    // primeiro, mesmo que as submissões cheguem fora de ordem (ex.: lote do write-behind ou replay)
+    @Modifying
+    @Query(value = """
+        INSERT INTO user_global_best (user_id, username, best_score, achieved_at, rank_key)
+        VALUES (:userId, :username, :score, :achievedAt, :rankKey)
+        ON CONFLICT (user_id) DO UPDATE
+        SET best_score = excluded.best_score, achieved_at = excluded.achieved_at, rank_key = excluded.rank_key
+        WHERE excluded.rank_key > user_global_best.rank_key
+        """, nativeQuery = true)
+    int upsertBestScore(@Param("userId") Long userId,
+                        @Param("username") String username,
+                        @Param("score") Integer score,
+                        @Param("achievedAt") LocalDateTime achievedAt,
+                        @Param("rankKey") Long rankKey);
+
+    // Ranking global - percorre o índice (rank_key DESC, username DESC), sem COUNT. Empates pelo
+    // username decrescente em ordem binária (collation da coluna), como o ZREVRANGE do Redis
+    @Query("""
+        SELECT b.userId AS userId, b.username AS username, b.bestScore AS score,
+               b.achievedAt AS achievedAt, b.rankKey AS rankKey
+        FROM UserGlobalBest b
+        ORDER BY b.rankKey DESC, b.username DESC
+        """)
+    List<LeaderboardRow> findLeaderboard(Pageable pageable);
+
+    // Ranking global por keyset - página seguinte ao último (rank_key, username) visto
+    @Query("""
+        SELECT b.userId AS userId, b.username AS username, b.bestScore AS score,
+               b.achievedAt AS achievedAt, b.rankKey AS rankKey
+        FROM UserGlobalBest b
+        WHERE b.rankKey <= :rankKey AND (b.rankKey < :rankKey OR b.username < :username)
+        ORDER BY b.rankKey DESC, b.username DESC
+        """)
+    List<LeaderboardRow> findLeaderboardAfter(@Param("rankKey") Long rankKey,
+                                              @Param("username") String username,
+                                              Pageable pageable);
+
+    // Posição do usuário no ranking global, na mesma ordem de findLeaderboard. O COUNT é um
+    // index-only scan de (rank_key, username) até a posição do usuário: custo proporcional ao rank
+    @Query(value = """
+        SELECT (SELECT COUNT(*) FROM user_global_best o
+                WHERE (o.rank_key, o.username) > (b.rank_key, b.username)) + 1
+        FROM user_global_best b
+        WHERE b.user_id = :userId
+        """, nativeQuery = true)
+    Optional<Long> findUserRank(@Param("userId") Long userId);
+
+    // Melhor score de cada usuário, lido em cursor (fetch size) sem hidratar entidades - exige transação
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("""
+        SELECT b.username AS username, b.bestScore AS bestScore, b.achievedAt AS achievedAt
+        FROM UserGlobalBest b
+        """)
+    Stream<UserBestScore> streamAll();
+}
@@ -2,19 +2,39 @@ package com.leaderboard.security;
 
 import com.leaderboard.entity.User;
 import com.leaderboard.repository.UserRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Duration;
+
 @Service
 public class CustomUserDetailsService implements UserDetailsService {
 
     @Autowired
     UserRepository userRepository;
 
+    @Value("${jwt.stateless-principal.revocation-check-ttl-ms:60000}")
+    private long revocationCheckTtlMs;
+
+    // Resultado recente da checagem "o usuário ainda existe?" por id, para o modo sem consulta por requisição
+    private Cache<Long, Boolean> activeUsers;
+
+    @PostConstruct
+    void init() {
+        activeUsers = Caffeine.newBuilder()
+                .maximumSize(100_000)
+                .expireAfterWrite(Duration.ofMillis(revocationCheckTtlMs))
+                .build();
+    }
+
     @Override
     @Transactional
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
@@ -34,4 +54,19 @@ public class CustomUserDetailsService implements UserDetailsService {
 
         return UserPrincipal.create(user);
     }
+
+    /**
+     * Verifica se o usuário do token ainda existe. O resultado fica em cache por alguns segundos,
+     * então um usuário removido perde o acesso em até revocation-check-ttl-ms
+     */
+    public boolean isActiveUser(Long id) {
+        // Consulta fora do cache: Cache.get(key, loader) roda o loader dentro do lock do ConcurrentHashMap,
+        // e uma consulta JDBC ali prende a thread de plataforma de uma virtual thread
+        Boolean active = activeUsers.getIfPresent(id);
+        if (active == null) {
+            active = userRepository.existsById(id);
+            activeUsers.put(id, active);
+        }
+        return active;
+    }
 }
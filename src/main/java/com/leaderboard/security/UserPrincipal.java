@@ -41,6 +41,16 @@ public class UserPrincipal implements UserDetails {
         );
     }
 
+    /**
+     * Principal montado só com as claims do JWT (sem email nem senha), sem consultar o banco
+     */
+    public static UserPrincipal fromToken(Long id, String username) {
+        List<GrantedAuthority> authorities = Collections.
+                singletonList(new SimpleGrantedAuthority("ROLE_USER"));
+
+        return new UserPrincipal(id, username, null, null, authorities);
+    }
+
 
     @Override
     public String getUsername() {
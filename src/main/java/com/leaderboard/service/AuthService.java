@@ -67,7 +67,7 @@ public class AuthService {
 
         User result = userRepository.save(user);
 
-        String jwt = tokenProvider.generateTokenFromUsername(result.getUsername());
+        String jwt = tokenProvider.generateToken(result.getId(), result.getUsername());
 
         // ✅ CORREÇÃO: Usar o construtor com 3 parâmetros
         return new AuthResponse(jwt, result.getUsername(), result.getEmail());
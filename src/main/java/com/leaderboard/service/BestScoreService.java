@@ -0,0 +1,30 @@
+package com.leaderboard.service;
+
+import com.leaderboard.repository.UserGameBestRepository;
+import com.leaderboard.repository.UserGlobalBestRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+/**
+ * Mantém as tabelas de melhor score (por jogo e global) usadas pelas consultas de leaderboard no banco
+ */
+@Service
+@RequiredArgsConstructor
+public class BestScoreService {
+
+    private final UserGameBestRepository userGameBestRepository;
+    private final UserGlobalBestRepository userGlobalBestRepository;
+
+    /**
+     * Registra o score nas duas tabelas, mantendo sempre o maior valor
+     */
+    @Transactional
+    public void record(Long userId, String username, Long gameId, Integer score, LocalDateTime achievedAt) {
+        long rankKey = ScoreOrdering.rankKey(score, achievedAt);
+        userGameBestRepository.upsertBestScore(userId, gameId, username, score, achievedAt, rankKey);
+        userGlobalBestRepository.upsertBestScore(userId, username, score, achievedAt, rankKey);
+    }
+}
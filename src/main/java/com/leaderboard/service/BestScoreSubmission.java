@@ -0,0 +1,37 @@
+package com.leaderboard.service;
+
+import java.time.LocalDateTime;
+
+/**
+ * Um score a registrar nos leaderboards (jogo, global e melhor score do usuário)
+ */
+public class BestScoreSubmission {
+
+    private final Long gameId;
+    private final String username;
+    private final Integer score;
+    private final LocalDateTime achievedAt;
+
+    public BestScoreSubmission(Long gameId, String username, Integer score, LocalDateTime achievedAt) {
+        this.gameId = gameId;
+        this.username = username;
+        this.score = score;
+        this.achievedAt = achievedAt;
+    }
+
+    public Long getGameId() {
+        return gameId;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public Integer getScore() {
+        return score;
+    }
+
+    public LocalDateTime getAchievedAt() {
+        return achievedAt;
+    }
+}
@@ -0,0 +1,224 @@
+package com.leaderboard.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.leaderboard.entity.Game;
+import com.leaderboard.repository.GameRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Catálogo dos jogos em memória, indexado por id e por nome.
+ *
+ * Jogos mudam raramente: as leituras usam um snapshot imutável sem lock, e cada alteração
+ * publica um snapshot novo (copy-on-write). As entidades do catálogo são cópias desanexadas;
+ * servem como referência em novos Scores, mas não devem ser alteradas nem ter as coleções LAZY acessadas.
+ * Um id ou nome desconhecido consulta o banco uma vez, cobrindo jogos criados por outras instâncias;
+ * se também não estiver lá, a ausência fica guardada por miss-ttl-ms para não repetir a consulta.
+ */
+@Component
+@RequiredArgsConstructor
+public class GameCatalog {
+
+    private static final Comparator<Game> NEWEST_FIRST =
+            Comparator.comparing(Game::getCreatedAt, Comparator.nullsLast(Comparator.reverseOrder()));
+
+    private final GameRepository gameRepository;
+
+    private volatile Snapshot snapshot;
+
+    // Serializa quem publica snapshots; ReentrantLock em vez de synchronized para não prender
+    // a thread de plataforma de uma virtual thread durante a consulta ao banco
+    private final ReentrantLock writeLock = new ReentrantLock();
+
+    @Value("${leaderboard.game-catalog.miss-ttl-ms:5000}")
+    private long missTtlMs;
+
+    // Ids e nomes que não existiam no banco na última consulta
+    private Cache<Long, Boolean> missingIds;
+    private Cache<String, Boolean> missingNames;
+
+    @PostConstruct
+    void init() {
+        missingIds = Caffeine.newBuilder()
+                .maximumSize(10_000)
+                .expireAfterWrite(Duration.ofMillis(missTtlMs))
+                .build();
+        missingNames = Caffeine.newBuilder()
+                .maximumSize(10_000)
+                .expireAfterWrite(Duration.ofMillis(missTtlMs))
+                .build();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        refresh();
+    }
+
+    /**
+     * Relê todos os jogos do banco; também pega renomeações feitas por outras instâncias
+     */
+    @Scheduled(fixedDelayString = "${leaderboard.game-catalog.refresh-ms:300000}",
+            initialDelayString = "${leaderboard.game-catalog.refresh-ms:300000}")
+    public void refresh() {
+        writeLock.lock();
+        try {
+            snapshot = Snapshot.of(gameRepository.findAllOrderByCreatedAtDesc());
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    public Optional<Game> findById(Long id) {
+        Game game = current().byId.get(id);
+        if (game != null) return Optional.of(game);
+        if (missingIds.getIfPresent(id) != null) return Optional.empty();
+
+        Optional<Game> loaded = gameRepository.findById(id).map(this::put);
+        if (loaded.isEmpty()) missingIds.put(id, Boolean.TRUE);
+        return loaded;
+    }
+
+    public Optional<Game> findByName(String name) {
+        Game game = current().byName.get(name);
+        if (game != null) return Optional.of(game);
+        if (missingNames.getIfPresent(name) != null) return Optional.empty();
+
+        Optional<Game> loaded = gameRepository.findByName(name).map(this::put);
+        if (loaded.isEmpty()) missingNames.put(name, Boolean.TRUE);
+        return loaded;
+    }
+
+    /**
+     * Jogos com os ids informados; ids desconhecidos são buscados no banco em uma única query
+     */
+    public Map<Long, Game> findAllByIds(Collection<Long> ids) {
+        Snapshot current = current();
+        Map<Long, Game> games = new HashMap<>();
+        List<Long> missing = new ArrayList<>();
+        for (Long id : ids) {
+            Game game = current.byId.get(id);
+            if (game != null) {
+                games.put(id, game);
+            } else if (missingIds.getIfPresent(id) == null) {
+                missing.add(id);
+            }
+        }
+
+        if (!missing.isEmpty()) {
+            for (Game game : gameRepository.findAllById(missing)) {
+                games.put(game.getId(), put(game));
+            }
+            for (Long id : missing) {
+                if (!games.containsKey(id)) missingIds.put(id, Boolean.TRUE);
+            }
+        }
+        return games;
+    }
+
+    /**
+     * Nome do jogo, ou "Game {id}" se ele não existir
+     */
+    public String nameOf(Long gameId) {
+        return findById(gameId).map(Game::getName).orElse("Game " + gameId);
+    }
+
+    /**
+     * Todos os jogos, do mais recente para o mais antigo
+     */
+    public List<Game> findAll() {
+        return current().ordered;
+    }
+
+    public int size() {
+        return current().ordered.size();
+    }
+
+    /**
+     * Publica o jogo salvo (novo ou alterado) em um novo snapshot
+     */
+    public Game put(Game game) {
+        writeLock.lock();
+        try {
+            Snapshot current = current();
+
+            List<Game> games = new ArrayList<>(current.ordered.size() + 1);
+            for (Game existing : current.ordered) {
+                if (!existing.getId().equals(game.getId())) {
+                    games.add(existing);
+                }
+            }
+            games.add(game);
+            games.sort(NEWEST_FIRST);
+
+            Snapshot updated = Snapshot.of(games);
+            snapshot = updated;
+            missingIds.invalidate(game.getId());
+            missingNames.invalidate(game.getName());
+            return updated.byId.get(game.getId());
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    // Carrega sob demanda se alguém consultar antes do ApplicationReadyEvent
+    private Snapshot current() {
+        Snapshot current = snapshot;
+        if (current == null) {
+            writeLock.lock();
+            try {
+                if (snapshot == null) {
+                    refresh();
+                }
+                current = snapshot;
+            } finally {
+                writeLock.unlock();
+            }
+        }
+        return current;
+    }
+
+    private static Game copyOf(Game game) {
+        return new Game(game.getId(), game.getName(), game.getDescription(), null, game.getCreatedAt());
+    }
+
+    private static final class Snapshot {
+        private final List<Game> ordered;
+        private final Map<Long, Game> byId;
+        private final Map<String, Game> byName;
+
+        private Snapshot(List<Game> ordered, Map<Long, Game> byId, Map<String, Game> byName) {
+            this.ordered = ordered;
+            this.byId = byId;
+            this.byName = byName;
+        }
+
+        private static Snapshot of(List<Game> games) {
+            List<Game> ordered = new ArrayList<>(games.size());
+            Map<Long, Game> byId = new HashMap<>();
+            Map<String, Game> byName = new HashMap<>();
+            for (Game game : games) {
+                Game copy = copyOf(game);
+                ordered.add(copy);
+                byId.put(copy.getId(), copy);
+                byName.put(copy.getName(), copy);
+            }
+            return new Snapshot(List.copyOf(ordered), Map.copyOf(byId), Map.copyOf(byName));
+        }
+    }
+}
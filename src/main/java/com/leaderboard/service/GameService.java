@@ -5,10 +5,13 @@ import com.leaderboard.entity.Game;
 import com.leaderboard.exception.ResourceNotFoundException;
 import com.leaderboard.repository.GameRepository;
 import com.leaderboard.repository.ScoreRepository;
+import com.leaderboard.repository.UserGameBestRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @Service
@@ -18,24 +21,34 @@ public class GameService {
     // ✅ CORREÇÃO: Adicionar final para funcionar com @RequiredArgsConstructor
     private final GameRepository gameRepository;
     private final ScoreRepository scoreRepository;
+    private final UserGameBestRepository userGameBestRepository;
+    private final GameCatalog gameCatalog;
 
     public List<GameDto> findAll() {
-        List<Game> games = gameRepository.findAllOrderByCreatedAtDesc();
-        return games.stream().map(this::convertToDto).collect(Collectors.toList());
+        return gameCatalog.findAll().stream().map(this::convertToDto).collect(Collectors.toList());
     }
 
     public Game findById(Long id) {
-        return gameRepository.findById(id)
+        return gameCatalog.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Jogo", "id", id));
     }
 
+    /**
+     * Busca vários jogos no catálogo, indexados por id
+     */
+    public Map<Long, Game> findAllByIds(Collection<Long> ids) {
+        return gameCatalog.findAllByIds(ids);
+    }
+
     public Game findByName(String name) {
-        return gameRepository.findByName(name)
+        return gameCatalog.findByName(name)
                 .orElseThrow(() -> new ResourceNotFoundException("Jogo", "name", name));
     }
 
     public Game save(Game game) {
-        return gameRepository.save(game);
+        Game saved = gameRepository.save(game);
+        gameCatalog.put(saved);
+        return saved;
     }
 
     public GameDto getGameWithStats(Long id) {
@@ -43,8 +56,8 @@ public class GameService {
         GameDto dto = convertToDto(game);
 
         // Adicionar estatísticas
-        dto.setTotalPlayers(scoreRepository.countDistinctPlayersByGame(game).intValue());
-        dto.setTotalScores(game.getScores().size());
+        dto.setTotalPlayers((int) userGameBestRepository.countByGameId(id));
+        dto.setTotalScores((int) scoreRepository.countByGame(game));
 
         return dto;
     }
@@ -0,0 +1,414 @@
+package com.leaderboard.service;
+
+import com.leaderboard.dto.LeaderboardEntry;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Leaderboards mantidos na própria JVM, sem Redis. Indicado para deploys de um único nó:
+ * o conteúdo é carregado do banco na inicialização pelo LeaderboardService.
+ */
+@RequiredArgsConstructor
+
+@Service
+@ConditionalOnProperty(name = "leaderboard.engine", havingValue = "memory")
+public class InMemoryLeaderboardEngine implements LeaderboardEngine {
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final Board globalBoard = new Board();
+    private final Map<Long, Board> gameBoards = new ConcurrentHashMap<>();
+    private final Map<String, Integer> userBestScores = new ConcurrentHashMap<>();
+
+    @Override
+    public Long submitBestScore(Long gameId, String username, Integer score, LocalDateTime achievedAt) {
+        long rankKey = ScoreOrdering.rankKey(score, achievedAt);
+        Long gameRank = keepMax(gameId, gameBoard(gameId), username, rankKey);
+        keepMax(null, globalBoard, username, rankKey);
+        userBestScores.merge(username, score, Math::max);
+        return gameRank;
+    }
+
+    @Override
+    public List<Long> submitBestScores(List<BestScoreSubmission> submissions) {
+        List<Long> ranks = new ArrayList<>(submissions.size());
+        for (BestScoreSubmission submission : submissions) {
+            ranks.add(submitBestScore(submission.getGameId(), submission.getUsername(),
+                    submission.getScore(), submission.getAchievedAt()));
+        }
+        return ranks;
+    }
+
+    @Override
+    public List<LeaderboardEntry> getGlobalTopN(int limit) {
+        return getGlobalRankRange(1, limit);
+    }
+
+    @Override
+    public List<LeaderboardEntry> getGameTopN(Long gameId, int limit) {
+        return getGameRankRange(gameId, 1, limit);
+    }
+
+    @Override
+    public Long getUserGlobalRank(String username) {
+        return globalBoard.rankOf(username);
+    }
+
+    @Override
+    public Long getUserGameRank(Long gameId, String username) {
+        Board board = gameBoards.get(gameId);
+        return board != null ? board.rankOf(username) : null;
+    }
+
+    @Override
+    public Integer getUserGlobalScore(String username) {
+        return globalBoard.scoreOf(username);
+    }
+
+    @Override
+    public Integer getUserGameScore(Long gameId, String username) {
+        Board board = gameBoards.get(gameId);
+        return board != null ? board.scoreOf(username) : null;
+    }
+
+    @Override
+    public void removeFromGlobalLeaderboard(String username) {
+        globalBoard.remove(username);
+        eventPublisher.publishEvent(LeaderboardChangedEvent.boardChanged(null));
+    }
+
+    @Override
+    public void removeFromGameLeaderboard(Long gameId, String username) {
+        Board board = gameBoards.get(gameId);
+        if (board != null) {
+            board.remove(username);
+            eventPublisher.publishEvent(LeaderboardChangedEvent.boardChanged(gameId));
+        }
+    }
+
+    @Override
+    public Long getGlobalLeaderboardSize() {
+        return globalBoard.size();
+    }
+
+    @Override
+    public Long getGameLeaderboardSize(Long gameId) {
+        Board board = gameBoards.get(gameId);
+        return board != null ? board.size() : 0L;
+    }
+
+    @Override
+    public List<LeaderboardEntry> getGlobalRankRange(long start, long end) {
+        return toEntries(globalBoard.range(start, end), "Global", start);
+    }
+
+    @Override
+    public List<LeaderboardEntry> getGameRankRange(Long gameId, long start, long end) {
+        Board board = gameBoards.get(gameId);
+        if (board == null) return new ArrayList<>();
+
+        return toEntries(board.range(start, end), "Game " + gameId, start);
+    }
+
+    @Override
+    public void clearGameLeaderboard(Long gameId) {
+        gameBoards.remove(gameId);
+        eventPublisher.publishEvent(LeaderboardChangedEvent.boardChanged(gameId));
+    }
+
+    @Override
+    public void clearGlobalLeaderboard() {
+        globalBoard.clear();
+        eventPublisher.publishEvent(LeaderboardChangedEvent.boardChanged(null));
+    }
+
+    @Override
+    public LeaderboardRebuild rebuildGlobalLeaderboard() {
+        return new MemoryRebuild(null);
+    }
+
+    @Override
+    public LeaderboardRebuild rebuildGameLeaderboard(Long gameId) {
+        return new MemoryRebuild(gameId);
+    }
+
+    // Começa vazio a cada inicialização
+    @Override
+    public boolean requiresRebuild() {
+        return true;
+    }
+
+    @Override
+    public List<LeaderboardEntry> getUserNeighbors(String username, int neighbors) {
+        return neighbors(globalBoard, username, neighbors, "Global");
+    }
+
+    @Override
+    public List<LeaderboardEntry> getUserGameNeighbors(Long gameId, String username, int neighbors) {
+        Board board = gameBoards.get(gameId);
+        if (board == null) return new ArrayList<>();
+
+        return neighbors(board, username, neighbors, "Game " + gameId);
+    }
+
+    @Override
+    public List<BoardStanding> getStandings(String username, List<Long> gameIds) {
+        List<BoardStanding> standings = new ArrayList<>(gameIds.size() + 1);
+        standings.add(new BoardStanding(null, getUserGlobalRank(username), getUserGlobalScore(username)));
+        for (Long gameId : gameIds) {
+            standings.add(new BoardStanding(gameId, getUserGameRank(gameId, username), getUserGameScore(gameId, username)));
+        }
+        return standings;
+    }
+
+    @Override
+    public Integer getUserBestScore(String username) {
+        return userBestScores.get(username);
+    }
+
+    @Override
+    public boolean isLeaderboardHealthy() {
+        return true;
+    }
+
+    @Override
+    public LeaderboardStats getLeaderboardStats() {
+        LeaderboardStats stats = new LeaderboardStats();
+        stats.setGlobalPlayersCount(getGlobalLeaderboardSize());
+        stats.setRedisHealthy(isLeaderboardHealthy());
+
+        return stats;
+    }
+
+    /**
+     * Mantém a maior chave de ordenação no Board e publica um LeaderboardChangedEvent se ela mudou
+     */
+    private Long keepMax(Long gameId, Board board, String username, long rankKey) {
+        Board.Placement placement = board.keepMax(username, rankKey);
+        if (placement.changed) {
+            eventPublisher.publishEvent(LeaderboardChangedEvent.memberChanged(gameId, placement.rank));
+        }
+        return placement.rank;
+    }
+
+    private Board gameBoard(Long gameId) {
+        return gameBoards.computeIfAbsent(gameId, id -> new Board());
+    }
+
+    private List<LeaderboardEntry> neighbors(Board board, String username, int neighbors, String gameName) {
+        Board.Window window = board.window(username, neighbors);
+        if (window == null) return new ArrayList<>();
+
+        return toEntries(window.entries, gameName, window.start);
+    }
+
+    /**
+     * Converte entradas da skip list para LeaderboardEntry com rank inicial customizado
+     */
+    private List<LeaderboardEntry> toEntries(List<OrderStatisticSkipList.Entry> range, String gameName, long startRank) {
+        List<LeaderboardEntry> entries = new ArrayList<>(range.size());
+        long rank = startRank;
+
+        for (OrderStatisticSkipList.Entry item : range) {
+            LeaderboardEntry entry = new LeaderboardEntry();
+            entry.setRank(rank++);
+            entry.setUsername(item.member);
+            entry.setScore(ScoreOrdering.scoreOf(item.score));
+            entry.setGameName(gameName);
+
+            entries.add(entry);
+        }
+
+        return entries;
+    }
+
+    // Reconstrução em um Board novo, que substitui o conteúdo do Board atual no commit (ver Board.replaceWith)
+    private class MemoryRebuild implements LeaderboardRebuild {
+        private final Board board = new Board();
+        private final Map<String, Integer> bestScores = new HashMap<>();
+        private final Long gameId;
+        private final boolean withBestScores;
+
+        MemoryRebuild(Long gameId) {
+            this.gameId = gameId;
+            // Só a reconstrução do global recarrega o melhor score de cada usuário
+            this.withBestScores = gameId == null;
+        }
+
+        @Override
+        public void add(String username, Integer score, LocalDateTime achievedAt) {
+            board.keepMax(username, ScoreOrdering.rankKey(score, achievedAt));
+            if (withBestScores) {
+                bestScores.merge(username, score, Math::max);
+            }
+        }
+
+        @Override
+        public long commit() {
+            Board live = gameId == null ? globalBoard : gameBoard(gameId);
+            long size = live.replaceWith(board);
+            userBestScores.putAll(bestScores);
+            eventPublisher.publishEvent(LeaderboardChangedEvent.boardChanged(gameId));
+            return size;
+        }
+
+        @Override
+        public void close() {
+            // Nada a liberar: sem commit o Board novo é simplesmente descartado
+        }
+    }
+
+    // Um leaderboard: skip list ordenada + chave de ordenação (ScoreOrdering) atual de cada membro,
+    // protegidos por um lock de leitura/escrita
+    private static class Board {
+        private OrderStatisticSkipList ranking = new OrderStatisticSkipList();
+        private Map<String, Double> scores = new HashMap<>();
+        private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+        /**
+         * Adota o conteúdo de um Board reconstruído, sob o lock de escrita deste Board (que continua sendo
+         * o mesmo objeto). As submissões feitas durante a reconstrução são reaplicadas depois pela sincronização.
+         * Retorna o novo tamanho
+         */
+        long replaceWith(Board rebuilt) {
+            lock.writeLock().lock();
+            try {
+                ranking = rebuilt.ranking;
+                scores = rebuilt.scores;
+                return ranking.size();
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        /**
+         * Mantém o maior score do membro e retorna sua posição e se o score mudou
+         */
+        Placement keepMax(String member, double score) {
+            lock.writeLock().lock();
+            try {
+                Double current = scores.get(member);
+                boolean changed = current == null || score > current;
+                if (changed) {
+                    if (current != null) {
+                        ranking.remove(member, current);
+                    }
+                    ranking.insert(member, score);
+                    scores.put(member, score);
+                    current = score;
+                }
+                return new Placement(ranking.rankOf(member, current), changed);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        Long rankOf(String member) {
+            lock.readLock().lock();
+            try {
+                Double score = scores.get(member);
+                return score != null ? ranking.rankOf(member, score) : null;
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        Integer scoreOf(String member) {
+            lock.readLock().lock();
+            try {
+                Double score = scores.get(member);
+                return score != null ? ScoreOrdering.scoreOf(score) : null;
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        void remove(String member) {
+            lock.writeLock().lock();
+            try {
+                Double score = scores.remove(member);
+                if (score != null) {
+                    ranking.remove(member, score);
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        long size() {
+            lock.readLock().lock();
+            try {
+                return ranking.size();
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        List<OrderStatisticSkipList.Entry> range(long start, long end) {
+            lock.readLock().lock();
+            try {
+                return ranking.range(start, end);
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        /**
+         * Posição do membro e seus vizinhos, lidos sob o mesmo lock
+         */
+        Window window(String member, int neighbors) {
+            lock.readLock().lock();
+            try {
+                Double score = scores.get(member);
+                if (score == null) return null;
+
+                long rank = ranking.rankOf(member, score);
+                long start = Math.max(1, rank - neighbors);
+                return new Window(start, ranking.range(start, rank + neighbors));
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        void clear() {
+            lock.writeLock().lock();
+            try {
+                ranking.clear();
+                scores.clear();
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        private static class Placement {
+            private final long rank;
+            private final boolean changed;
+
+            Placement(long rank, boolean changed) {
+                this.rank = rank;
+                this.changed = changed;
+            }
+        }
+
+        private static class Window {
+            private final long start;
+            private final List<OrderStatisticSkipList.Entry> entries;
+
+            Window(long start, List<OrderStatisticSkipList.Entry> entries) {
+                this.start = start;
+                this.entries = entries;
+            }
+        }
+    }
+}
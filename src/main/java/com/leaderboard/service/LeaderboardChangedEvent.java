@@ -0,0 +1,43 @@
+package com.leaderboard.service;
+
+/**
+ * Publicado pelo LeaderboardEngine quando um leaderboard muda.
+ * gameId null indica o leaderboard global; rank null indica que o leaderboard inteiro
+ * pode ter mudado (reconstrução, limpeza ou remoção de membro).
+ */
+public class LeaderboardChangedEvent {
+
+    private final Long gameId;
+    private final Long rank;
+
+    public LeaderboardChangedEvent(Long gameId, Long rank) {
+        this.gameId = gameId;
+        this.rank = rank;
+    }
+
+    /**
+     * Um membro mudou de score e agora está na posição rank (base 1)
+     */
+    public static LeaderboardChangedEvent memberChanged(Long gameId, Long rank) {
+        return new LeaderboardChangedEvent(gameId, rank);
+    }
+
+    /**
+     * O leaderboard inteiro deve ser considerado alterado
+     */
+    public static LeaderboardChangedEvent boardChanged(Long gameId) {
+        return new LeaderboardChangedEvent(gameId, null);
+    }
+
+    public Long getGameId() {
+        return gameId;
+    }
+
+    public Long getRank() {
+        return rank;
+    }
+
+    public boolean isGlobal() {
+        return gameId == null;
+    }
+}
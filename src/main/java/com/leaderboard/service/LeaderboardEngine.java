@@ -0,0 +1,197 @@
+package com.leaderboard.service;
+
+import com.leaderboard.dto.LeaderboardEntry;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Backend de ranking dos leaderboards (global e por jogo).
+ * A implementação é escolhida pela propriedade leaderboard.engine: redis (padrão) ou memory.
+ */
+public interface LeaderboardEngine {
+
+    /**
+     * Registra um score no leaderboard do jogo, no global e no melhor score do usuário,
+     * mantendo sempre o maior valor (no empate, o alcançado primeiro). Retorna a nova posição do usuário no jogo.
+     */
+    Long submitBestScore(Long gameId, String username, Integer score, LocalDateTime achievedAt);
+
+    /**
+     * Registra vários scores de uma vez, com a mesma semântica de submitBestScore.
+     * Retorna a nova posição no jogo de cada score, na ordem recebida
+     */
+    List<Long> submitBestScores(List<BestScoreSubmission> submissions);
+
+    /**
+     * Obtém o top N do leaderboard global
+     */
+    List<LeaderboardEntry> getGlobalTopN(int limit);
+
+    /**
+     * Obtém o top N do leaderboard de um jogo específico
+     */
+    List<LeaderboardEntry> getGameTopN(Long gameId, int limit);
+
+    /**
+     * Obtém a posição (base 1) do usuário no ranking global
+     */
+    Long getUserGlobalRank(String username);
+
+    /**
+     * Obtém a posição (base 1) do usuário no ranking de um jogo
+     */
+    Long getUserGameRank(Long gameId, String username);
+
+    /**
+     * Obtém o score do usuário no leaderboard global
+     */
+    Integer getUserGlobalScore(String username);
+
+    /**
+     * Obtém o score do usuário em um jogo específico
+     */
+    Integer getUserGameScore(Long gameId, String username);
+
+    /**
+     * Remove usuário do leaderboard global
+     */
+    void removeFromGlobalLeaderboard(String username);
+
+    /**
+     * Remove usuário do leaderboard de um jogo
+     */
+    void removeFromGameLeaderboard(Long gameId, String username);
+
+    /**
+     * Obtém o total de jogadores no leaderboard global
+     */
+    Long getGlobalLeaderboardSize();
+
+    /**
+     * Obtém o total de jogadores no leaderboard de um jogo
+     */
+    Long getGameLeaderboardSize(Long gameId);
+
+    /**
+     * Obtém jogadores entre as posições start e end (base 1, inclusivas) do ranking global
+     */
+    List<LeaderboardEntry> getGlobalRankRange(long start, long end);
+
+    /**
+     * Obtém jogadores entre as posições start e end (base 1, inclusivas) do ranking de um jogo
+     */
+    List<LeaderboardEntry> getGameRankRange(Long gameId, long start, long end);
+
+    /**
+     * Limpa todo o leaderboard de um jogo
+     */
+    void clearGameLeaderboard(Long gameId);
+
+    /**
+     * Limpa o leaderboard global
+     */
+    void clearGlobalLeaderboard();
+
+    /**
+     * Inicia a reconstrução completa do leaderboard global (e do melhor score de cada usuário)
+     */
+    LeaderboardRebuild rebuildGlobalLeaderboard();
+
+    /**
+     * Inicia a reconstrução completa do leaderboard de um jogo
+     */
+    LeaderboardRebuild rebuildGameLeaderboard(Long gameId);
+
+    /**
+     * Indica se os leaderboards precisam ser reconstruídos a partir do banco na inicialização
+     * (backend vazio ou gravado em um formato antigo)
+     */
+    default boolean requiresRebuild() {
+        return false;
+    }
+
+    /**
+     * Chamado depois de uma reconstrução completa bem-sucedida
+     */
+    default void rebuildCompleted() {
+    }
+
+    /**
+     * Obtém usuários próximos de um usuário específico no ranking global
+     */
+    List<LeaderboardEntry> getUserNeighbors(String username, int neighbors);
+
+    /**
+     * Obtém usuários próximos de um usuário específico no ranking de um jogo
+     */
+    List<LeaderboardEntry> getUserGameNeighbors(Long gameId, String username, int neighbors);
+
+    /**
+     * Posição e score do usuário no leaderboard global e em cada jogo informado, em uma única leitura.
+     * O primeiro item é o global (gameId null); os demais seguem a ordem de gameIds
+     */
+    List<BoardStanding> getStandings(String username, List<Long> gameIds);
+
+    /**
+     * Obtém melhor score do usuário do cache
+     */
+    Integer getUserBestScore(String username);
+
+    /**
+     * Verifica se o backend está respondendo
+     */
+    boolean isLeaderboardHealthy();
+
+    /**
+     * Obtém estatísticas dos leaderboards
+     */
+    LeaderboardStats getLeaderboardStats();
+
+    // Posição e score de um usuário em um leaderboard (gameId null = global)
+    class BoardStanding {
+        private final Long gameId;
+        private final Long rank;
+        private final Integer score;
+
+        public BoardStanding(Long gameId, Long rank, Integer score) {
+            this.gameId = gameId;
+            this.rank = rank;
+            this.score = score;
+        }
+
+        public Long getGameId() {
+            return gameId;
+        }
+
+        public Long getRank() {
+            return rank;
+        }
+
+        public Integer getScore() {
+            return score;
+        }
+    }
+
+    // Classe para estatísticas do backend
+    class LeaderboardStats {
+        private Long globalPlayersCount;
+        private boolean redisHealthy;
+
+        public Long getGlobalPlayersCount() {
+            return globalPlayersCount;
+        }
+
+        public void setGlobalPlayersCount(Long globalPlayersCount) {
+            this.globalPlayersCount = globalPlayersCount;
+        }
+
+        public boolean isRedisHealthy() {
+            return redisHealthy;
+        }
+
+        public void setRedisHealthy(boolean redisHealthy) {
+            this.redisHealthy = redisHealthy;
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package com.leaderboard.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.leaderboard.dto.LeaderboardEntry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Cache local (na JVM) das faixas top-N dos leaderboards, na frente do LeaderboardEngine.
+ *
+ * Cada leaderboard tem um contador de versão que faz parte da chave do cache. Quando um membro muda
+ * e termina dentro do top-K, a versão sobe e as faixas antigas deixam de ser encontradas; mudanças
+ * abaixo do top-K não afetam nenhuma faixa cacheada. O TTL curto limita a desatualização
+ * para mudanças feitas por outras instâncias da aplicação.
+ */
+@Component
+public class LeaderboardNearCache {
+
+    @Value("${leaderboard.near-cache.enabled:true}")
+    private boolean enabled;
+
+    @Value("${leaderboard.near-cache.top-k:100}")
+    private int topK;
+
+    @Value("${leaderboard.near-cache.max-size:1000}")
+    private long maxSize;
+
+    @Value("${leaderboard.near-cache.ttl-ms:1000}")
+    private long ttlMs;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final AtomicLong globalVersion = new AtomicLong();
+    private final Map<Long, AtomicLong> gameVersions = new ConcurrentHashMap<>();
+
+    private Cache<SliceKey, List<LeaderboardEntry>> cache;
+
+    @PostConstruct
+    void init() {
+        cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofMillis(ttlMs))
+                .recordStats()
+                .build();
+
+        // Hits, misses e evictions expostos como cache.* com a tag cache=leaderboardNearCache
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "leaderboardNearCache");
+    }
+
+    /**
+     * Top N de um leaderboard (gameId null = global); carrega com o loader em caso de miss.
+     * Faixas maiores que o top-K não são cacheadas, pois mudanças nelas não invalidam o cache
+     */
+    public List<LeaderboardEntry> getTopN(Long gameId, int limit, Supplier<List<LeaderboardEntry>> loader) {
+        if (!enabled || limit > topK) {
+            return loader.get();
+        }
+
+        // A versão é lida antes de carregar: se o leaderboard mudar no meio, a faixa fica numa versão já ultrapassada
+        SliceKey key = new SliceKey(gameId, limit, version(gameId).get());
+        List<LeaderboardEntry> cached = cache.getIfPresent(key);
+        if (cached != null) {
+            return cached;
+        }
+
+        List<LeaderboardEntry> loaded = loader.get();
+        if (loaded != null && !loaded.isEmpty()) {
+            loaded = List.copyOf(loaded);
+            cache.put(key, loaded);
+        }
+        return loaded;
+    }
+
+    @EventListener
+    public void onLeaderboardChanged(LeaderboardChangedEvent event) {
+        if (event.getRank() == null || event.getRank() <= topK) {
+            version(event.getGameId()).incrementAndGet();
+        }
+    }
+
+    /**
+     * Versão atual de um leaderboard (gameId null = global); muda sempre que o top-K pode ter mudado
+     */
+    public long currentVersion(Long gameId) {
+        return version(gameId).get();
+    }
+
+    /**
+     * Maior faixa que o cache acompanha
+     */
+    public int getTopK() {
+        return topK;
+    }
+
+    /**
+     * Tempo máximo que uma faixa fica no cache sem ser recarregada
+     */
+    public long getTtlMs() {
+        return ttlMs;
+    }
+
+    public CacheStats stats() {
+        return cache.stats();
+    }
+
+    private AtomicLong version(Long gameId) {
+        return gameId == null ? globalVersion : gameVersions.computeIfAbsent(gameId, id -> new AtomicLong());
+    }
+
+    // Faixa top-N de um leaderboard em uma versão específica
+    private record SliceKey(Long gameId, int limit, long version) {
+    }
+}
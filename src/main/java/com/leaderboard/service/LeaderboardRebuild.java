@@ -0,0 +1,25 @@
+package com.leaderboard.service;
+
+import java.time.LocalDateTime;
+
+/**
+ * Reconstrução completa de um leaderboard. As entradas são gravadas fora do leaderboard atual
+ * e só o substituem no commit, então leitores nunca veem um ranking pela metade.
+ * Fechar sem commit descarta o que foi carregado.
+ */
+public interface LeaderboardRebuild extends AutoCloseable {
+
+    /**
+     * Adiciona o score de um usuário e quando foi alcançado; se o usuário aparecer de novo,
+     * fica o maior score (no empate, o alcançado primeiro)
+     */
+    void add(String username, Integer score, LocalDateTime achievedAt);
+
+    /**
+     * Substitui o leaderboard atual pelo reconstruído. Retorna a quantidade de entradas carregadas
+     */
+    long commit();
+
+    @Override
+    void close();
+}
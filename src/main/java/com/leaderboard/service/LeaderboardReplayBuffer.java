@@ -0,0 +1,183 @@
+package com.leaderboard.service;
+
+import com.leaderboard.entity.LeaderboardOutboxEntry;
+import com.leaderboard.repository.LeaderboardOutboxRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Atualizações de leaderboard que não chegaram ao Redis (circuito aberto ou falha), guardadas na tabela
+ * leaderboard_outbox e reenviadas em ordem de inserção, em lotes, quando ele volta.
+ *
+ * A gravação acontece depois do commit do score que a originou, ou no mesmo commit no lote do write-behind.
+ * Assim a entrada sobrevive a um restart e só existe se o score também foi gravado.
+ * O engine só mantém o maior score: reenviar uma entrada mais de uma vez (queda entre o Redis
+ * e o DELETE, ou duas instâncias) não muda o resultado.
+ * Acima de capacity entradas novas são descartadas e o buffer passa a pedir uma sincronização completa,
+ * que relê tudo do banco (onde o score já foi gravado).
+ */
+@Component
+public class LeaderboardReplayBuffer {
+
+    private static final Logger logger = LoggerFactory.getLogger(LeaderboardReplayBuffer.class);
+
+    @Value("${leaderboard.circuit-breaker.replay-capacity:100000}")
+    private int capacity;
+
+    @Value("${leaderboard.circuit-breaker.replay-batch-size:500}")
+    private int batchSize;
+
+    @Autowired
+    private LeaderboardOutboxRepository outboxRepository;
+
+    @Autowired
+    private LeaderboardEngine leaderboardEngine;
+
+    @Autowired
+    private RedisCircuitBreaker circuitBreaker;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    // Tamanho aproximado da tabela, para o limite e a métrica sem um COUNT a cada escrita
+    private final AtomicLong approximateSize = new AtomicLong();
+    private volatile boolean resyncRequired = false;
+
+    private Counter droppedCounter;
+    private Counter replayedCounter;
+
+    @PostConstruct
+    void init() {
+        try {
+            approximateSize.set(outboxRepository.count());
+        } catch (Exception e) {
+            logger.error("Erro ao contar o outbox de leaderboard: {}", e.getMessage());
+        }
+
+        Gauge.builder("leaderboard.replay.pending", approximateSize, AtomicLong::get)
+                .description("Atualizações de leaderboard aguardando o Redis")
+                .register(meterRegistry);
+        droppedCounter = Counter.builder("leaderboard.replay.dropped")
+                .description("Atualizações descartadas com o outbox cheio (recuperadas pela sincronização completa)")
+                .register(meterRegistry);
+        replayedCounter = Counter.builder("leaderboard.replay.replayed")
+                .description("Atualizações reenviadas ao Redis")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Para quem chama depois do commit do score: uma falha ao gravar o outbox não pode virar erro
+     * de uma submissão já gravada. Registra a falha e pede a sincronização completa, que relê o banco
+     */
+    public void addOrRequestResync(List<BestScoreSubmission> submissions) {
+        try {
+            addAll(submissions);
+        } catch (Exception e) {
+            logger.error("Erro ao gravar o outbox de leaderboard, sincronização completa agendada: {}", e.getMessage());
+            droppedCounter.increment(submissions.size());
+            resyncRequired = true;
+        }
+    }
+
+    public void addAll(List<BestScoreSubmission> submissions) {
+        if (approximateSize.get() + submissions.size() > capacity) {
+            droppedCounter.increment(submissions.size());
+            resyncRequired = true;
+            return;
+        }
+
+        List<LeaderboardOutboxEntry> entries = new ArrayList<>(submissions.size());
+        for (BestScoreSubmission submission : submissions) {
+            entries.add(new LeaderboardOutboxEntry(submission.getGameId(), submission.getUsername(),
+                    submission.getScore(), submission.getAchievedAt()));
+        }
+        outboxRepository.saveAll(entries);
+
+        // Dentro de uma transação (lote do write-behind), só conta depois do commit: replay() não pode
+        // zerar o contador por não ver linhas que ainda não foram confirmadas
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    approximateSize.addAndGet(entries.size());
+                }
+            });
+        } else {
+            approximateSize.addAndGet(entries.size());
+        }
+    }
+
+    /**
+     * Reenvia as entradas mais antigas em lotes pelo circuit breaker e as apaga depois de aceitas.
+     * Para no primeiro lote recusado ou com erro, que fica na tabela. Retorna quantas foram reenviadas.
+     * Com o circuito fechado e o outbox vazio (contagem lida no início, mantida a cada escrita) não consulta o banco
+     */
+    public int replay() {
+        if (approximateSize.get() == 0 && circuitBreaker.getState() == RedisCircuitBreaker.State.CLOSED) {
+            return 0;
+        }
+
+        int replayed = 0;
+        while (true) {
+            long seen = approximateSize.get();
+            List<LeaderboardOutboxEntry> entries = outboxRepository.findOldest(PageRequest.of(0, batchSize));
+            if (entries.isEmpty()) {
+                // Se alguma escrita foi contada durante a consulta, o contador fica para a próxima rodada
+                approximateSize.compareAndSet(seen, 0);
+                break;
+            }
+
+            List<BestScoreSubmission> submissions = new ArrayList<>(entries.size());
+            List<Long> ids = new ArrayList<>(entries.size());
+            for (LeaderboardOutboxEntry entry : entries) {
+                submissions.add(new BestScoreSubmission(
+                        entry.getGameId(), entry.getUsername(), entry.getScore(), entry.getAchievedAt()));
+                ids.add(entry.getId());
+            }
+
+            try {
+                circuitBreaker.execute(() -> leaderboardEngine.submitBestScores(submissions));
+            } catch (Exception e) {
+                if (!(e instanceof RedisCircuitBreaker.OpenException)) {
+                    logger.warn("Erro ao reenviar atualizações de leaderboard: {}", e.getMessage());
+                }
+                break;
+            }
+
+            outboxRepository.deleteAllByIdInBatch(ids);
+            approximateSize.updateAndGet(size -> Math.max(0, size - ids.size()));
+            replayedCounter.increment(ids.size());
+            replayed += ids.size();
+
+            if (entries.size() < batchSize) break;
+        }
+        return replayed;
+    }
+
+    /**
+     * Indica (e limpa) se houve descarte: os leaderboards precisam ser reconstruídos a partir do banco
+     */
+    public boolean takeResyncRequired() {
+        if (!resyncRequired) return false;
+        resyncRequired = false;
+        return true;
+    }
+
+    public long size() {
+        return approximateSize.get();
+    }
+}
@@ -1,118 +1,186 @@
 package com.leaderboard.service;
 
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.leaderboard.dto.CursorPage;
+import com.leaderboard.dto.GameStandingDto;
+import com.leaderboard.dto.KeysetCursor;
 import com.leaderboard.dto.LeaderboardEntry;
+import com.leaderboard.dto.PlayerProfileDto;
 import com.leaderboard.entity.Game;
-import com.leaderboard.entity.Score;
-import com.leaderboard.repository.GameRepository;
+import com.leaderboard.entity.UserGameBest;
+import com.leaderboard.entity.UserGlobalBest;
+import com.leaderboard.repository.LeaderboardRow;
+import com.leaderboard.repository.OffsetPageRequest;
 import com.leaderboard.repository.ScoreRepository;
+import com.leaderboard.repository.SubmittedScore;
+import com.leaderboard.repository.UserBestScore;
+import com.leaderboard.repository.UserGameBestRepository;
+import com.leaderboard.repository.UserGlobalBestRepository;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.context.event.EventListener;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
 
 @Service
 public class LeaderboardService {
 
+    private static final Logger logger = LoggerFactory.getLogger(LeaderboardService.class);
+
+    // Intervalo (em linhas) dos logs de progresso da sincronização
+    private static final long SYNC_PROGRESS_INTERVAL = 100_000;
+
+    // Submissões reaplicadas por chamada ao engine depois da sincronização
+    private static final int SYNC_REPLAY_BATCH_SIZE = 500;
+
+    // Folga antes do início da sincronização: cobre transações de score ainda abertas e diferença de relógio
+    @Value("${leaderboard.sync.replay-margin-ms:60000}")
+    private long syncReplayMarginMs;
+
     @Autowired
-    private RedisLeaderboardService redisLeaderboardService;
+    private LeaderboardEngine leaderboardEngine;
 
     @Autowired
     private ScoreRepository scoreRepository;
 
     @Autowired
-    private GameRepository gameRepository;
+    private UserGlobalBestRepository userGlobalBestRepository;
+
+    @Autowired
+    private UserGameBestRepository userGameBestRepository;
+
+    @Autowired
+    private GameCatalog gameCatalog;
 
     @Autowired
     private UserService userService;
 
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private LeaderboardNearCache nearCache;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private RedisCircuitBreaker circuitBreaker;
+
+    @Autowired
+    private LeaderboardReplayBuffer replayBuffer;
+
+    // Proxy deste serviço: chamadas internas a métodos @Async precisam passar por ele
+    @Lazy
+    @Autowired
+    private LeaderboardService self;
+
     /**
-     * Obtém o leaderboard global do Redis, com fallback para o banco
+     * Obtém o leaderboard global: near-cache local, depois Redis, com fallback para o banco
      */
     public List<LeaderboardEntry> getGlobalLeaderboard(int limit) {
+        return nearCache.getTopN(null, limit, () -> loadGlobalLeaderboard(limit));
+    }
+
+    /**
+     * Obtém o leaderboard de um jogo específico: near-cache local, depois Redis, com fallback para o banco
+     */
+    public List<LeaderboardEntry> getGameLeaderboard(Long gameId, int limit) {
+        return nearCache.getTopN(gameId, limit, () -> loadGameLeaderboard(gameId, limit));
+    }
+
+    /**
+     * Obtém o leaderboard global do Redis, com fallback para o banco
+     */
+    private List<LeaderboardEntry> loadGlobalLeaderboard(int limit) {
         try {
             // Primeiro, tenta buscar do Redis
-            List<LeaderboardEntry> redisResults = redisLeaderboardService.getGlobalTopN(limit);
+            List<LeaderboardEntry> redisResults = fromRedis(() -> leaderboardEngine.getGlobalTopN(limit));
 
             if (redisResults != null && !redisResults.isEmpty()) {
                 return redisResults;
             }
         } catch (Exception e) {
-            System.err.println("Erro ao buscar leaderboard do Redis: " + e.getMessage());
+            logger.warn("Erro ao buscar leaderboard do Redis: {}", e.getMessage());
         }
 
         // Fallback para o banco de dados
-        return getGlobalLeaderboardFromDatabase(limit);
+        return fromDatabase("globalTopN", () -> getGlobalLeaderboardFromDatabase(limit));
     }
 
     /**
      * Obtém o leaderboard de um jogo específico do Redis, com fallback para o banco
      */
-    public List<LeaderboardEntry> getGameLeaderboard(Long gameId, int limit) {
+    private List<LeaderboardEntry> loadGameLeaderboard(Long gameId, int limit) {
         try {
             // Primeiro, tenta buscar do Redis
-            List<LeaderboardEntry> redisResults = redisLeaderboardService.getGameTopN(gameId, limit);
+            List<LeaderboardEntry> redisResults = fromRedis(() -> leaderboardEngine.getGameTopN(gameId, limit));
 
             if (redisResults != null && !redisResults.isEmpty()) {
                 return enrichWithGameName(redisResults, gameId);
             }
         } catch (Exception e) {
-            System.err.println("Erro ao buscar leaderboard do jogo do Redis: " + e.getMessage());
+            logger.warn("Erro ao buscar leaderboard do jogo do Redis: {}", e.getMessage());
         }
 
         // Fallback para o banco de dados
-        return getGameLeaderboardFromDatabase(gameId, limit);
+        return fromDatabase("gameTopN", () -> getGameLeaderboardFromDatabase(gameId, limit));
     }
 
     /**
      * Obtém o leaderboard global do banco de dados
      */
     private List<LeaderboardEntry> getGlobalLeaderboardFromDatabase(int limit) {
-        Pageable pageable = PageRequest.of(0, limit);
-        Page<Score> topScores = scoreRepository.findGlobalLeaderboard(pageable);
-
-        List<LeaderboardEntry> entries = new ArrayList<>();
-        long rank = 1;
-
-        for (Score score : topScores.getContent()) {
-            LeaderboardEntry entry = new LeaderboardEntry();
-            entry.setRank(rank++);
-            entry.setUsername(score.getUser().getUsername());
-            entry.setScore(score.getScore());
-            entry.setGameName("Global");
-            entry.setSubmittedAt(score.getSubmittedAt());
-            entries.add(entry);
-        }
-
-        return entries;
+        List<LeaderboardRow> rows = userGlobalBestRepository.findLeaderboard(PageRequest.of(0, limit));
+        return toEntries(rows, "Global", 1);
     }
 
     /**
      * Obtém o leaderboard de um jogo do banco de dados
      */
     private List<LeaderboardEntry> getGameLeaderboardFromDatabase(Long gameId, int limit) {
-        Game game = gameRepository.findById(gameId)
+        Game game = gameCatalog.findById(gameId)
                 .orElseThrow(() -> new IllegalArgumentException("Jogo não encontrado: " + gameId));
 
-        Pageable pageable = PageRequest.of(0, limit);
-        Page<Score> topScores = scoreRepository.findGameLeaderboard(game, pageable);
+        List<LeaderboardRow> rows = userGameBestRepository.findLeaderboard(gameId, PageRequest.of(0, limit));
+        return toEntries(rows, game.getName(), 1);
+    }
 
-        List<LeaderboardEntry> entries = new ArrayList<>();
-        long rank = 1;
+    /**
+     * Converte linhas das tabelas de melhor score para LeaderboardEntry com rank inicial customizado
+     */
+    private List<LeaderboardEntry> toEntries(List<LeaderboardRow> rows, String gameName, long startRank) {
+        List<LeaderboardEntry> entries = new ArrayList<>(rows.size());
+        long rank = startRank;
 
-        for (Score score : topScores.getContent()) {
+        for (LeaderboardRow row : rows) {
             LeaderboardEntry entry = new LeaderboardEntry();
             entry.setRank(rank++);
-            entry.setUsername(score.getUser().getUsername());
-            entry.setScore(score.getScore());
-            entry.setGameName(game.getName());
-            entry.setSubmittedAt(score.getSubmittedAt());
+            entry.setUsername(row.getUsername());
+            entry.setScore(row.getScore());
+            entry.setGameName(gameName);
+            entry.setSubmittedAt(row.getAchievedAt());
             entries.add(entry);
         }
 
@@ -125,16 +193,16 @@ public class LeaderboardService {
     public Long getUserGlobalRank(String username) {
         try {
             // Primeiro tenta do Redis
-            Long redisRank = redisLeaderboardService.getUserGlobalRank(username);
+            Long redisRank = fromRedis(() -> leaderboardEngine.getUserGlobalRank(username));
             if (redisRank != null) {
                 return redisRank;
             }
         } catch (Exception e) {
-            System.err.println("Erro ao buscar rank do Redis: " + e.getMessage());
+            logger.warn("Erro ao buscar rank do Redis: {}", e.getMessage());
         }
 
         // Fallback para o banco
-        return getUserGlobalRankFromDatabase(username);
+        return fromDatabase("globalRank", () -> getUserGlobalRankFromDatabase(username));
     }
 
     /**
@@ -143,16 +211,16 @@ public class LeaderboardService {
     public Long getUserGameRank(Long gameId, String username) {
         try {
             // Primeiro tenta do Redis
-            Long redisRank = redisLeaderboardService.getUserGameRank(gameId, username);
+            Long redisRank = fromRedis(() -> leaderboardEngine.getUserGameRank(gameId, username));
             if (redisRank != null) {
                 return redisRank;
             }
         } catch (Exception e) {
-            System.err.println("Erro ao buscar rank do jogo do Redis: " + e.getMessage());
+            logger.warn("Erro ao buscar rank do jogo do Redis: {}", e.getMessage());
         }
 
         // Fallback para o banco
-        return getUserGameRankFromDatabase(gameId, username);
+        return fromDatabase("gameRank", () -> getUserGameRankFromDatabase(gameId, username));
     }
 
     /**
@@ -161,7 +229,7 @@ public class LeaderboardService {
     private Long getUserGlobalRankFromDatabase(String username) {
         try {
             var user = userService.findByUsername(username);
-            return scoreRepository.findUserGlobalRank(user.getId()).orElse(null);
+            return userGlobalBestRepository.findUserRank(user.getId()).orElse(null);
         } catch (Exception e) {
             return null;
         }
@@ -173,7 +241,7 @@ public class LeaderboardService {
     private Long getUserGameRankFromDatabase(Long gameId, String username) {
         try {
             var user = userService.findByUsername(username);
-            return scoreRepository.findUserRankInGame(user.getId(), gameId).orElse(null);
+            return userGameBestRepository.findUserRank(user.getId(), gameId).orElse(null);
         } catch (Exception e) {
             return null;
         }
@@ -184,22 +252,24 @@ public class LeaderboardService {
      */
     public List<LeaderboardEntry> getUserNeighbors(String username, int neighbors) {
         try {
-            List<LeaderboardEntry> redisResults = redisLeaderboardService.getUserNeighbors(username, neighbors);
+            List<LeaderboardEntry> redisResults = fromRedis(() -> leaderboardEngine.getUserNeighbors(username, neighbors));
             if (redisResults != null && !redisResults.isEmpty()) {
                 return redisResults;
             }
         } catch (Exception e) {
-            System.err.println("Erro ao buscar vizinhos do Redis: " + e.getMessage());
+            logger.warn("Erro ao buscar vizinhos do Redis: {}", e.getMessage());
         }
 
         // Fallback para implementação do banco (simplificada)
-        Long userRank = getUserGlobalRank(username);
-        if (userRank == null) return new ArrayList<>();
+        return fromDatabase("neighbors", () -> {
+            Long userRank = getUserGlobalRank(username);
+            if (userRank == null) return new ArrayList<>();
 
-        long start = Math.max(1, userRank - neighbors);
-        long end = userRank + neighbors;
+            long start = Math.max(1, userRank - neighbors);
+            long end = userRank + neighbors;
 
-        return getGlobalRankRange((int) start, (int) end);
+            return getGlobalRankRange((int) start, (int) end);
+        });
     }
 
     /**
@@ -207,48 +277,150 @@ public class LeaderboardService {
      */
     public List<LeaderboardEntry> getUserGameNeighbors(Long gameId, String username, int neighbors) {
         try {
-            List<LeaderboardEntry> redisResults = redisLeaderboardService.getUserGameNeighbors(gameId, username, neighbors);
+            List<LeaderboardEntry> redisResults = fromRedis(() -> leaderboardEngine.getUserGameNeighbors(gameId, username, neighbors));
             if (redisResults != null && !redisResults.isEmpty()) {
                 return enrichWithGameName(redisResults, gameId);
             }
         } catch (Exception e) {
-            System.err.println("Erro ao buscar vizinhos do jogo do Redis: " + e.getMessage());
+            logger.warn("Erro ao buscar vizinhos do jogo do Redis: {}", e.getMessage());
         }
 
         // Fallback para implementação do banco
-        Long userRank = getUserGameRank(gameId, username);
-        if (userRank == null) return new ArrayList<>();
+        return fromDatabase("gameNeighbors", () -> {
+            Long userRank = getUserGameRank(gameId, username);
+            if (userRank == null) return new ArrayList<>();
 
-        long start = Math.max(1, userRank - neighbors);
-        long end = userRank + neighbors;
+            long start = Math.max(1, userRank - neighbors);
+            long end = userRank + neighbors;
 
-        return getGameRankRange(gameId, (int) start, (int) end);
+            return getGameRankRange(gameId, (int) start, (int) end);
+        });
     }
 
     /**
-     * Obtém uma faixa específica do ranking global
+     * Obtém uma faixa específica do ranking global, lendo só a janela pedida
      */
     public List<LeaderboardEntry> getGlobalRankRange(int start, int end) {
-        int limit = end - start + 1;
-        List<LeaderboardEntry> fullList = getGlobalLeaderboard(Math.max(end, 100));
-
-        if (start > fullList.size()) return new ArrayList<>();
+        try {
+            List<LeaderboardEntry> redisResults = fromRedis(() -> leaderboardEngine.getGlobalRankRange(start, end));
+            if (redisResults != null && !redisResults.isEmpty()) {
+                return redisResults;
+            }
+        } catch (Exception e) {
+            logger.warn("Erro ao buscar faixa do ranking do Redis: {}", e.getMessage());
+        }
 
-        int endIndex = Math.min(end, fullList.size());
-        return fullList.subList(start - 1, endIndex);
+        // Fallback para o banco: OFFSET/LIMIT sobre o índice da tabela de melhor score
+        return fromDatabase("globalRange", () ->
+                toEntries(userGlobalBestRepository.findLeaderboard(rankWindow(start, end)), "Global", start));
     }
 
     /**
-     * Obtém uma faixa específica do ranking de um jogo
+     * Obtém uma faixa específica do ranking de um jogo, lendo só a janela pedida
      */
     public List<LeaderboardEntry> getGameRankRange(Long gameId, int start, int end) {
-        int limit = end - start + 1;
-        List<LeaderboardEntry> fullList = getGameLeaderboard(gameId, Math.max(end, 100));
+        try {
+            List<LeaderboardEntry> redisResults = fromRedis(() -> leaderboardEngine.getGameRankRange(gameId, start, end));
+            if (redisResults != null && !redisResults.isEmpty()) {
+                return enrichWithGameName(redisResults, gameId);
+            }
+        } catch (Exception e) {
+            logger.warn("Erro ao buscar faixa do ranking do jogo do Redis: {}", e.getMessage());
+        }
 
-        if (start > fullList.size()) return new ArrayList<>();
+        // Fallback para o banco
+        Game game = gameCatalog.findById(gameId)
+                .orElseThrow(() -> new IllegalArgumentException("Jogo não encontrado: " + gameId));
+
+        return fromDatabase("gameRange", () ->
+                toEntries(userGameBestRepository.findLeaderboard(gameId, rankWindow(start, end)), game.getName(), start));
+    }
 
-        int endIndex = Math.min(end, fullList.size());
-        return fullList.subList(start - 1, endIndex);
+    /**
+     * Lê do engine através do circuit breaker. Com o circuito aberto devolve null na hora,
+     * sem esperar o timeout do Redis, e o chamador segue direto para o fallback
+     */
+    private <T> T fromRedis(Supplier<T> call) {
+        try {
+            return circuitBreaker.execute(call);
+        } catch (RedisCircuitBreaker.OpenException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Executa a consulta de fallback no banco medindo-a por método:
+     * o contador do timer é quantas vezes o Redis não atendeu a leitura
+     */
+    private <T> T fromDatabase(String method, Supplier<T> query) {
+        return Timer.builder("leaderboard.fallback")
+                .description("Leituras atendidas pelo banco porque o Redis falhou ou veio vazio")
+                .tag("method", method)
+                .register(meterRegistry)
+                .record(query);
+    }
+
+    // Posições start..end (base 1, inclusivas) como offset/limit
+    private static Pageable rankWindow(int start, int end) {
+        return new OffsetPageRequest(start - 1L, end - start + 1);
+    }
+
+    /**
+     * Percorre o ranking global por cursor, direto nas tabelas de melhor score (sem OFFSET nem COUNT)
+     */
+    public CursorPage<LeaderboardEntry> getGlobalLeaderboardAfter(String cursor, int size) {
+        Pageable pageable = PageRequest.of(0, size + 1);
+        if (cursor == null || cursor.isBlank()) {
+            return toCursorPage(userGlobalBestRepository.findLeaderboard(pageable), size, 0, "Global");
+        }
+
+        KeysetCursor after = KeysetCursor.decode(cursor);
+        List<LeaderboardRow> rows = userGlobalBestRepository.findLeaderboardAfter(after.getSortKey(), after.getTiebreak(), pageable);
+        return toCursorPage(rows, size, after.getPosition(), "Global");
+    }
+
+    /**
+     * Percorre o ranking de um jogo por cursor
+     */
+    public CursorPage<LeaderboardEntry> getGameLeaderboardAfter(Long gameId, String cursor, int size) {
+        Game game = gameCatalog.findById(gameId)
+                .orElseThrow(() -> new IllegalArgumentException("Jogo não encontrado: " + gameId));
+
+        Pageable pageable = PageRequest.of(0, size + 1);
+        if (cursor == null || cursor.isBlank()) {
+            return toCursorPage(userGameBestRepository.findLeaderboard(gameId, pageable), size, 0, game.getName());
+        }
+
+        KeysetCursor after = KeysetCursor.decode(cursor);
+        List<LeaderboardRow> rows = userGameBestRepository.findLeaderboardAfter(
+                gameId, after.getSortKey(), after.getTiebreak(), pageable);
+        return toCursorPage(rows, size, after.getPosition(), game.getName());
+    }
+
+    // Lê size + 1 linhas: a linha extra só indica que existe próxima página
+    private CursorPage<LeaderboardEntry> toCursorPage(List<LeaderboardRow> rows, int size, long position, String gameName) {
+        boolean hasNext = rows.size() > size;
+        List<LeaderboardRow> page = hasNext ? rows.subList(0, size) : rows;
+
+        String nextCursor = null;
+        if (hasNext) {
+            LeaderboardRow last = page.get(page.size() - 1);
+            nextCursor = new KeysetCursor(last.getRankKey(), last.getUsername(), position + page.size()).encode();
+        }
+
+        return new CursorPage<>(toEntries(page, gameName, position + 1), nextCursor, hasNext);
+    }
+
+    /**
+     * Reconstrói os leaderboards a partir do banco quando o backend pede
+     * (o backend em memória começa vazio; o Redis pode estar em um formato antigo)
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildIfRequired() {
+        if (leaderboardEngine.requiresRebuild()) {
+            // Pelo proxy, para rodar no executor assíncrono sem segurar o início da aplicação
+            self.syncLeaderboards();
+        }
     }
 
     /**
@@ -256,11 +428,14 @@ public class LeaderboardService {
      */
     @Async
     public CompletableFuture<Void> syncLeaderboards() {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "success";
         try {
-            System.out.println("Iniciando sincronização dos leaderboards...");
+            logger.info("Iniciando sincronização dos leaderboards...");
+            LocalDateTime startedAt = LocalDateTime.now().minus(Duration.ofMillis(syncReplayMarginMs));
 
-            // Limpar leaderboards existentes
-            redisLeaderboardService.clearGlobalLeaderboard();
+            // Cada leaderboard é reconstruído à parte e trocado de uma vez pelo conteúdo do banco,
+            // então o ranking atual continua disponível durante a sincronização
 
             // Sincronizar leaderboard global
             syncGlobalLeaderboard();
@@ -268,60 +443,122 @@ public class LeaderboardService {
             // Sincronizar leaderboards por jogo
             syncGameLeaderboards();
 
-            System.out.println("Sincronização dos leaderboards concluída!");
+            // A troca descarta o que foi gravado no engine durante a leitura: reaplica essas submissões
+            replaySubmittedSince(startedAt);
+
+            leaderboardEngine.rebuildCompleted();
+
+            logger.info("Sincronização dos leaderboards concluída");
 
         } catch (Exception e) {
-            System.err.println("Erro na sincronização dos leaderboards: " + e.getMessage());
-            e.printStackTrace();
+            outcome = "error";
+            logger.error("Erro na sincronização dos leaderboards", e);
+        } finally {
+            sample.stop(Timer.builder("leaderboard.sync")
+                    .description("Duração da sincronização completa dos leaderboards a partir do banco")
+                    .tag("outcome", outcome)
+                    .register(meterRegistry));
         }
 
         return CompletableFuture.completedFuture(null);
     }
 
     /**
-     * Sincroniza o leaderboard global
+     * Sincroniza o leaderboard global com o melhor score de todos os usuários
      */
     private void syncGlobalLeaderboard() {
-        Pageable pageable = PageRequest.of(0, 1000); // Sincronizar top 1000
-        Page<Score> topScores = scoreRepository.findGlobalLeaderboard(pageable);
-
-        for (Score score : topScores.getContent()) {
-            redisLeaderboardService.updateGlobalLeaderboard(
-                    score.getUser().getUsername(),
-                    score.getScore()
-            );
-            redisLeaderboardService.updateUserBestScore(
-                    score.getUser().getUsername(),
-                    score.getScore()
-            );
-        }
+        try (LeaderboardRebuild rebuild = leaderboardEngine.rebuildGlobalLeaderboard()) {
+            streamInto(rebuild, userGlobalBestRepository::streamAll, "global");
 
-        System.out.println("Leaderboard global sincronizado: " + topScores.getNumberOfElements() + " entries");
+            long loaded = rebuild.commit();
+            recordSyncedEntries("global", loaded);
+            logger.info("Leaderboard global sincronizado: {} entries", loaded);
+        }
     }
 
     /**
      * Sincroniza os leaderboards por jogo
      */
     private void syncGameLeaderboards() {
-        List<Game> games = gameRepository.findAll();
-
-        for (Game game : games) {
-            Pageable pageable = PageRequest.of(0, 500); // Top 500 por jogo
-            Page<Score> gameScores = scoreRepository.findGameLeaderboard(game, pageable);
-
-            for (Score score : gameScores.getContent()) {
-                redisLeaderboardService.updateGameLeaderboard(
-                        game.getId(),
-                        score.getUser().getUsername(),
-                        score.getScore()
-                );
-            }
+        for (Game game : gameCatalog.findAll()) {
+            try (LeaderboardRebuild rebuild = leaderboardEngine.rebuildGameLeaderboard(game.getId())) {
+                streamInto(rebuild, () -> userGameBestRepository.streamByGameId(game.getId()), game.getName());
 
-            System.out.println("Leaderboard do jogo " + game.getName() + " sincronizado: " +
-                    gameScores.getNumberOfElements() + " entries");
+                long loaded = rebuild.commit();
+                recordSyncedEntries("game", loaded);
+                logger.info("Leaderboard do jogo {} sincronizado: {} entries", game.getName(), loaded);
+            }
         }
     }
 
+    /**
+     * Reaplica (keep-max) os scores submetidos desde o início da sincronização, em lotes.
+     * Só as submissões recentes voltam ao engine, não o conteúdo anterior do leaderboard
+     */
+    private void replaySubmittedSince(LocalDateTime since) {
+        TransactionTemplate readOnlyTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction.setReadOnly(true);
+
+        Long replayed = readOnlyTransaction.execute(status -> {
+            long count = 0;
+            List<BestScoreSubmission> batch = new ArrayList<>(SYNC_REPLAY_BATCH_SIZE);
+            try (Stream<SubmittedScore> rows = scoreRepository.streamSubmittedSince(since)) {
+                Iterator<SubmittedScore> iterator = rows.iterator();
+                while (iterator.hasNext()) {
+                    SubmittedScore row = iterator.next();
+                    batch.add(new BestScoreSubmission(row.getGameId(), row.getUsername(), row.getScore(), row.getSubmittedAt()));
+                    if (batch.size() == SYNC_REPLAY_BATCH_SIZE) {
+                        leaderboardEngine.submitBestScores(batch);
+                        count += batch.size();
+                        batch = new ArrayList<>(SYNC_REPLAY_BATCH_SIZE);
+                    }
+                }
+            }
+            if (!batch.isEmpty()) {
+                leaderboardEngine.submitBestScores(batch);
+                count += batch.size();
+            }
+            return count;
+        });
+
+        logger.info("Submissões reaplicadas após a sincronização: {}", replayed != null ? replayed : 0);
+    }
+
+    private void recordSyncedEntries(String board, long loaded) {
+        DistributionSummary.builder("leaderboard.sync.entries")
+                .description("Entradas carregadas por leaderboard reconstruído")
+                .tag("board", board)
+                .register(meterRegistry)
+                .record(loaded);
+    }
+
+    /**
+     * Percorre o cursor do banco dentro de uma transação somente leitura, carregando cada linha na reconstrução.
+     * A memória fica constante: o cursor busca em blocos e a reconstrução descarrega em lotes.
+     */
+    private long streamInto(LeaderboardRebuild rebuild, Supplier<Stream<UserBestScore>> query, String boardName) {
+        TransactionTemplate readOnlyTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction.setReadOnly(true);
+
+        Long read = readOnlyTransaction.execute(status -> {
+            long count = 0;
+            try (Stream<UserBestScore> rows = query.get()) {
+                Iterator<UserBestScore> iterator = rows.iterator();
+                while (iterator.hasNext()) {
+                    UserBestScore row = iterator.next();
+                    rebuild.add(row.getUsername(), row.getBestScore(), row.getAchievedAt());
+
+                    if (++count % SYNC_PROGRESS_INTERVAL == 0) {
+                        logger.info("Sincronização do leaderboard {}: {} entries lidas...", boardName, count);
+                    }
+                }
+            }
+            return count;
+        });
+
+        return read != null ? read : 0;
+    }
+
     /**
      * Obtém estatísticas dos leaderboards
      */
@@ -330,14 +567,20 @@ public class LeaderboardService {
 
         try {
             // Estatísticas do Redis
-            RedisLeaderboardService.LeaderboardStats redisStats = redisLeaderboardService.getLeaderboardStats();
+            LeaderboardEngine.LeaderboardStats redisStats = leaderboardEngine.getLeaderboardStats();
             stats.setGlobalPlayersInRedis(redisStats.getGlobalPlayersCount());
             stats.setRedisHealthy(redisStats.isRedisHealthy());
 
+            // Estatísticas do near-cache
+            CacheStats cacheStats = nearCache.stats();
+            stats.setNearCacheHits(cacheStats.hitCount());
+            stats.setNearCacheMisses(cacheStats.missCount());
+            stats.setNearCacheHitRate(cacheStats.hitRate());
+
             // Estatísticas do banco
-            stats.setTotalPlayersInDb(scoreRepository.countDistinctPlayers());
+            stats.setTotalPlayersInDb(userGlobalBestRepository.count());
             stats.setTotalScoresInDb(scoreRepository.count());
-            stats.setTotalGames(gameRepository.count());
+            stats.setTotalGames((long) gameCatalog.size());
 
             // Verificar sincronização
             stats.setSyncNeeded(stats.getGlobalPlayersInRedis() == null ||
@@ -362,14 +605,14 @@ public class LeaderboardService {
         long rank = 1;
 
         for (Object[] result : results.getContent()) {
-            var user = (com.leaderboard.entity.User) result[0];
+            String username = (String) result[0];
             Integer bestScore = result[1] != null ? ((Number) result[1]).intValue() : 0;
             Integer totalScores = result[2] != null ? ((Number) result[2]).intValue() : 0;
             Double avgScore = result[3] != null ? ((Number) result[3]).doubleValue() : 0.0;
 
             LeaderboardEntry entry = new LeaderboardEntry();
             entry.setRank(rank++);
-            entry.setUsername(user.getUsername());
+            entry.setUsername(username);
             entry.setScore(bestScore);
             entry.setGameName("Período: " + startDate.toLocalDate() + " - " + endDate.toLocalDate());
 
@@ -384,9 +627,7 @@ public class LeaderboardService {
      */
     private List<LeaderboardEntry> enrichWithGameName(List<LeaderboardEntry> entries, Long gameId) {
         try {
-            Game game = gameRepository.findById(gameId).orElse(null);
-            String gameName = game != null ? game.getName() : "Game " + gameId;
-
+            String gameName = gameCatalog.nameOf(gameId);
             entries.forEach(entry -> entry.setGameName(gameName));
         } catch (Exception e) {
             // Se não conseguir buscar o nome do jogo, deixa como está
@@ -396,40 +637,87 @@ public class LeaderboardService {
     }
 
     /**
-     * Força a atualização do leaderboard para um usuário específico
+     * Força a atualização do leaderboard para um usuário específico:
+     * uma leitura dos melhores scores materializados e um único pipeline no Redis
      */
     public void forceUpdateUserInLeaderboards(String username) {
         try {
             var user = userService.findByUsername(username);
 
-            // Buscar melhor score global do usuário
-            Object[] globalStats = scoreRepository.findUserStatistics(user);
-            if (globalStats[0] != null) {
-                Integer bestScore = ((Number) globalStats[0]).intValue();
-                redisLeaderboardService.updateGlobalLeaderboard(username, bestScore);
-                redisLeaderboardService.updateUserBestScore(username, bestScore);
+            // O global é o máximo entre os jogos: o keep-max de cada item já o mantém
+            List<BestScoreSubmission> submissions = userGameBestRepository.findByUserId(user.getId()).stream()
+                    .map(best -> new BestScoreSubmission(best.getGameId(), username, best.getBestScore(), best.getAchievedAt()))
+                    .toList();
+            if (!submissions.isEmpty()) {
+                submitOrBuffer(submissions);
             }
 
-            // Atualizar por jogo
-            List<Game> games = gameRepository.findAll();
-            for (Game game : games) {
-                Object[] gameStats = scoreRepository.findUserStatisticsForGame(user, game);
-                if (gameStats[0] != null) {
-                    Integer bestScore = ((Number) gameStats[0]).intValue();
-                    redisLeaderboardService.updateGameLeaderboard(game.getId(), username, bestScore);
-                }
+        } catch (Exception e) {
+            logger.warn("Erro ao forçar atualização do usuário {}: {}", username, e.getMessage());
+        }
+    }
+
+    /**
+     * Envia ao engine pelo circuit breaker; se o circuito estiver aberto ou a chamada falhar,
+     * os scores vão para o leaderboard_outbox e são reenviados quando o Redis voltar
+     */
+    private void submitOrBuffer(List<BestScoreSubmission> submissions) {
+        try {
+            circuitBreaker.execute(() -> leaderboardEngine.submitBestScores(submissions));
+        } catch (Exception e) {
+            replayBuffer.addOrRequestResync(submissions);
+            if (!(e instanceof RedisCircuitBreaker.OpenException)) {
+                logger.warn("Erro ao atualizar Redis, scores no outbox: {}", e.getMessage());
             }
+        }
+    }
+
+    /**
+     * Perfil do jogador: posição e score no global e em cada jogo que ele jogou,
+     * lidos em um único pipeline do Redis. Sem Redis, devolve os scores do banco sem posições
+     */
+    public PlayerProfileDto getPlayerProfile(String username) {
+        var user = userService.findByUsername(username);
 
+        List<UserGameBest> bests = userGameBestRepository.findByUserId(user.getId());
+        List<Long> gameIds = bests.stream().map(UserGameBest::getGameId).toList();
+
+        List<GameStandingDto> games = new ArrayList<>(bests.size());
+        try {
+            List<LeaderboardEngine.BoardStanding> standings = fromRedis(() -> leaderboardEngine.getStandings(username, gameIds));
+            if (standings != null) {
+                LeaderboardEngine.BoardStanding global = standings.get(0);
+                for (int i = 0; i < bests.size(); i++) {
+                    LeaderboardEngine.BoardStanding standing = standings.get(i + 1);
+                    UserGameBest best = bests.get(i);
+                    games.add(new GameStandingDto(best.getGameId(), gameCatalog.nameOf(best.getGameId()),
+                            standing.getRank(),
+                            standing.getScore() != null ? standing.getScore() : best.getBestScore()));
+                }
+                return new PlayerProfileDto(username, global.getRank(), global.getScore(), games);
+            }
         } catch (Exception e) {
-            System.err.println("Erro ao forçar atualização do usuário " + username + ": " + e.getMessage());
+            logger.warn("Erro ao buscar perfil do Redis: {}", e.getMessage());
         }
+
+        // Fallback para o banco: scores materializados, sem calcular a posição em cada jogo
+        return fromDatabase("profile", () -> {
+            games.clear();
+            for (UserGameBest best : bests) {
+                games.add(new GameStandingDto(best.getGameId(), gameCatalog.nameOf(best.getGameId()), null, best.getBestScore()));
+            }
+            Integer globalScore = userGlobalBestRepository.findById(user.getId())
+                    .map(UserGlobalBest::getBestScore)
+                    .orElse(null);
+            return new PlayerProfileDto(username, getUserGlobalRankFromDatabase(username), globalScore, games);
+        });
     }
 
     /**
      * Verifica se o Redis está funcionando corretamente
      */
     public boolean isRedisHealthy() {
-        return redisLeaderboardService.isLeaderboardHealthy();
+        return leaderboardEngine.isLeaderboardHealthy();
     }
 
     // Classe para estatísticas do leaderboard
@@ -440,6 +728,9 @@ public class LeaderboardService {
         private Long totalGames;
         private boolean redisHealthy;
         private boolean syncNeeded;
+        private long nearCacheHits;
+        private long nearCacheMisses;
+        private double nearCacheHitRate;
 
         // Getters e Setters
         public Long getGlobalPlayersInRedis() { return globalPlayersInRedis; }
@@ -459,5 +750,14 @@ public class LeaderboardService {
 
         public boolean isSyncNeeded() { return syncNeeded; }
         public void setSyncNeeded(boolean syncNeeded) { this.syncNeeded = syncNeeded; }
+
+        public long getNearCacheHits() { return nearCacheHits; }
+        public void setNearCacheHits(long nearCacheHits) { this.nearCacheHits = nearCacheHits; }
+
+        public long getNearCacheMisses() { return nearCacheMisses; }
+        public void setNearCacheMisses(long nearCacheMisses) { this.nearCacheMisses = nearCacheMisses; }
+
+        public double getNearCacheHitRate() { return nearCacheHitRate; }
+        public void setNearCacheHitRate(double nearCacheHitRate) { this.nearCacheHitRate = nearCacheHitRate; }
     }
 }
\ No newline at end of file
@@ -0,0 +1,144 @@
+package com.leaderboard.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.leaderboard.dto.ApiResponse;
+import com.leaderboard.dto.LeaderboardEntry;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Respostas dos leaderboards públicos já serializadas: o JSON do top-N de cada leaderboard
+ * é gerado uma vez por mudança e reaproveitado como byte[] em todas as requisições seguintes.
+ * O ETag é um hash do conteúdo do ranking, então permanece o mesmo enquanto o ranking não muda.
+ */
+@Service
+public class LeaderboardSnapshotService {
+
+    @Autowired
+    private LeaderboardService leaderboardService;
+
+    @Autowired
+    private LeaderboardNearCache nearCache;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private Cache<SnapshotKey, Snapshot> snapshots;
+
+    @PostConstruct
+    void init() {
+        // Um snapshot por (leaderboard, limit); o top-K limita os limits aceitos
+        snapshots = Caffeine.newBuilder()
+                .maximumSize(1_000)
+                .build();
+    }
+
+    /**
+     * Snapshot do top N do leaderboard global
+     */
+    public Snapshot getGlobalSnapshot(int limit) {
+        return snapshot(null, limit, "Leaderboard global carregado",
+                () -> leaderboardService.getGlobalLeaderboard(limit));
+    }
+
+    /**
+     * Snapshot do top N do leaderboard de um jogo
+     */
+    public Snapshot getGameSnapshot(Long gameId, int limit) {
+        return snapshot(gameId, limit, "Leaderboard do jogo carregado",
+                () -> leaderboardService.getGameLeaderboard(gameId, limit));
+    }
+
+    /**
+     * Maior limit servido por snapshot em cache
+     */
+    public int getMaxLimit() {
+        return nearCache.getTopK();
+    }
+
+    private Snapshot snapshot(Long gameId, int limit, String message, Supplier<List<LeaderboardEntry>> loader) {
+        // Versão lida antes de carregar: se o ranking mudar no meio, o snapshot já nasce desatualizado
+        long version = nearCache.currentVersion(gameId);
+
+        // Fora da faixa do top-K: serializa a cada requisição, sem guardar, como antes dos snapshots
+        if (limit < 1 || limit > getMaxLimit()) {
+            return render(loader.get(), message, version, null);
+        }
+
+        SnapshotKey key = new SnapshotKey(gameId, limit);
+
+        Snapshot current = snapshots.getIfPresent(key);
+        if (current != null && current.isFresh(version, nearCache.getTtlMs())) {
+            return current;
+        }
+
+        Snapshot rendered = render(loader.get(), message, version, current);
+        snapshots.put(key, rendered);
+        return rendered;
+    }
+
+    private Snapshot render(List<LeaderboardEntry> entries, String message, long version, Snapshot previous) {
+        try {
+            String etag = "\"" + sha256(objectMapper.writeValueAsBytes(entries)) + "\"";
+
+            // Ranking igual ao anterior (ex.: o TTL venceu sem mudanças): reaproveita o payload
+            if (previous != null && previous.etag.equals(etag)) {
+                return new Snapshot(previous.body, etag, version);
+            }
+
+            byte[] body = objectMapper.writeValueAsBytes(ApiResponse.success(message, entries));
+            return new Snapshot(body, etag, version);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Erro ao serializar leaderboard", e);
+        }
+    }
+
+    private static String sha256(byte[] content) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(content);
+            return HexFormat.of().formatHex(digest, 0, 16);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // Payload JSON pronto de um top N, com o ETag e a versão do leaderboard em que foi gerado
+    public static class Snapshot {
+        private final byte[] body;
+        private final String etag;
+        private final long version;
+        private final long renderedAt;
+
+        Snapshot(byte[] body, String etag, long version) {
+            this.body = body;
+            this.etag = etag;
+            this.version = version;
+            this.renderedAt = System.currentTimeMillis();
+        }
+
+        public byte[] getBody() {
+            return body;
+        }
+
+        public String getEtag() {
+            return etag;
+        }
+
+        boolean isFresh(long currentVersion, long ttlMs) {
+            return version == currentVersion && System.currentTimeMillis() - renderedAt < ttlMs;
+        }
+    }
+
+    private record SnapshotKey(Long gameId, int limit) {
+    }
+}
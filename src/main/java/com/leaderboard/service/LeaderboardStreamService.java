@@ -0,0 +1,337 @@
+package com.leaderboard.service;
+
+import com.leaderboard.dto.LeaderboardDelta;
+import com.leaderboard.dto.LeaderboardEntry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Stream (Server-Sent Events) das mudanças no top N dos leaderboards.
+ *
+ * Os LeaderboardChangedEvent só marcam o leaderboard como alterado; a cada tick, cada top N
+ * marcado é relido uma vez e a diferença para o último envio vai como um único evento "delta"
+ * para todos os inscritos. Uma rajada de submissões vira no máximo um delta por tick.
+ */
+@Service
+public class LeaderboardStreamService {
+
+    private static final Logger logger = LoggerFactory.getLogger(LeaderboardStreamService.class);
+
+    @Autowired
+    private LeaderboardService leaderboardService;
+
+    @Autowired
+    private LeaderboardNearCache nearCache;
+
+    @Autowired
+    private GameCatalog gameCatalog;
+
+    @Value("${leaderboard.stream.emitter-timeout-ms:1800000}")
+    private long emitterTimeoutMs;
+
+    @Value("${leaderboard.stream.refresh-ms:5000}")
+    private long refreshMs;
+
+    @Value("${leaderboard.stream.max-subscribers:1000}")
+    private int maxSubscribers;
+
+    @Value("${leaderboard.stream.max-pending-events:32}")
+    private int maxPendingEvents;
+
+    private final Map<StreamKey, Subscription> subscriptions = new ConcurrentHashMap<>();
+    private final AtomicInteger subscriberCount = new AtomicInteger();
+    // Envio fora das threads do @Scheduled: um cliente lento não atrasa o tick dos demais
+    private final ExecutorService sendExecutor = Executors.newVirtualThreadPerTaskExecutor();
+    private final Set<Long> dirtyGames = ConcurrentHashMap.newKeySet();
+    private volatile boolean globalDirty = false;
+
+    /**
+     * Inscreve um cliente no top N de um leaderboard (gameId null = global).
+     * O primeiro evento ("snapshot") traz o top N atual; os seguintes ("delta") só as mudanças.
+     * Lança SubscriberLimitException quando o limite global de inscritos foi atingido
+     */
+    public SseEmitter subscribe(Long gameId, int limit) {
+        if (limit < 1 || limit > nearCache.getTopK()) {
+            throw new IllegalArgumentException("Limit deve estar entre 1 e " + nearCache.getTopK());
+        }
+        if (gameId != null && gameCatalog.findById(gameId).isEmpty()) {
+            throw new IllegalArgumentException("Jogo não encontrado: " + gameId);
+        }
+        if (subscriberCount.incrementAndGet() > maxSubscribers) {
+            subscriberCount.decrementAndGet();
+            throw new SubscriberLimitException();
+        }
+
+        StreamKey key = new StreamKey(gameId, limit);
+        SseEmitter emitter = new SseEmitter(emitterTimeoutMs);
+        Client client = new Client(key, emitter);
+
+        emitter.onCompletion(() -> unsubscribe(key, emitter));
+        emitter.onTimeout(() -> unsubscribe(key, emitter));
+        emitter.onError(e -> unsubscribe(key, emitter));
+
+        // O cliente entra na inscrição e recebe o snapshot sob o lock dela: o primeiro delta
+        // que ele recebe é sempre calculado a partir desse snapshot
+        while (true) {
+            Subscription subscription = subscriptions.computeIfAbsent(key, k -> new Subscription());
+            subscription.lock.lock();
+            try {
+                if (subscription.closed) {
+                    // Removida por unsubscribe entre as duas operações: pega a nova
+                    continue;
+                }
+                List<LeaderboardEntry> current = subscription.last;
+                if (current == null) {
+                    current = load(key);
+                    subscription.update(current);
+                }
+                client.offer(SseEmitter.event().name("snapshot").data(current));
+                subscription.clients.add(client);
+                return emitter;
+            } catch (RuntimeException e) {
+                subscriberCount.decrementAndGet();
+                throw e;
+            } finally {
+                subscription.lock.unlock();
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        sendExecutor.shutdownNow();
+    }
+
+    @EventListener
+    public void onLeaderboardChanged(LeaderboardChangedEvent event) {
+        if (event.getRank() != null && event.getRank() > nearCache.getTopK()) {
+            return;
+        }
+
+        if (event.isGlobal()) {
+            globalDirty = true;
+        } else {
+            dirtyGames.add(event.getGameId());
+        }
+    }
+
+    /**
+     * Envia um delta para cada top N alterado desde o último tick. Mesmo sem eventos, o top N é relido
+     * a cada refresh-ms para refletir submissões feitas em outras instâncias da aplicação
+     */
+    @Scheduled(fixedDelayString = "${leaderboard.stream.tick-ms:1000}")
+    public void tick() {
+        boolean global = globalDirty;
+        globalDirty = false;
+        Set<Long> games = new HashSet<>(dirtyGames);
+        dirtyGames.removeAll(games);
+
+        long now = System.currentTimeMillis();
+        for (Map.Entry<StreamKey, Subscription> entry : subscriptions.entrySet()) {
+            StreamKey key = entry.getKey();
+            Subscription subscription = entry.getValue();
+            if (subscription.clients.isEmpty()) continue;
+
+            boolean changed = key.gameId == null ? global : games.contains(key.gameId);
+            if (changed || now - subscription.loadedAt >= refreshMs) {
+                publishDelta(key, subscription);
+            }
+        }
+    }
+
+    /**
+     * Comentário SSE periódico: mantém a conexão aberta em proxies e detecta clientes desconectados
+     */
+    @Scheduled(fixedDelayString = "${leaderboard.stream.heartbeat-ms:15000}")
+    public void heartbeat() {
+        subscriptions.forEach((key, subscription) -> {
+            for (Client client : subscription.clients) {
+                client.offer(SseEmitter.event().comment("ping"));
+            }
+        });
+    }
+
+    private void publishDelta(StreamKey key, Subscription subscription) {
+        subscription.lock.lock();
+        try {
+            List<LeaderboardEntry> previous = subscription.last != null ? subscription.last : List.of();
+            List<LeaderboardEntry> current;
+            try {
+                current = load(key);
+            } catch (Exception e) {
+                logger.warn("Erro ao carregar leaderboard para o stream: {}", e.getMessage());
+                return;
+            }
+            subscription.update(current);
+
+            LeaderboardDelta delta = diff(key.gameId, previous, current);
+            if (delta.getEntered().isEmpty() && delta.getLeft().isEmpty() && delta.getMoved().isEmpty()) {
+                return;
+            }
+
+            for (Client client : subscription.clients) {
+                client.offer(SseEmitter.event().name("delta").data(delta));
+            }
+        } finally {
+            subscription.lock.unlock();
+        }
+    }
+
+    // A inscrição sai do mapa junto com o último cliente, para o mapa não crescer sem limite
+    private void unsubscribe(StreamKey key, SseEmitter emitter) {
+        subscriptions.computeIfPresent(key, (k, subscription) -> {
+            subscription.lock.lock();
+            try {
+                if (subscription.clients.removeIf(client -> client.emitter == emitter)) {
+                    subscriberCount.decrementAndGet();
+                }
+                if (subscription.clients.isEmpty()) {
+                    subscription.closed = true;
+                    return null;
+                }
+                return subscription;
+            } finally {
+                subscription.lock.unlock();
+            }
+        });
+    }
+
+    private List<LeaderboardEntry> load(StreamKey key) {
+        return key.gameId == null
+                ? leaderboardService.getGlobalLeaderboard(key.limit)
+                : leaderboardService.getGameLeaderboard(key.gameId, key.limit);
+    }
+
+    /**
+     * Entradas que entraram no top N, usuários que saíram e entradas que mudaram de posição ou score
+     */
+    private static LeaderboardDelta diff(Long gameId, List<LeaderboardEntry> previous, List<LeaderboardEntry> current) {
+        Map<String, LeaderboardEntry> before = new HashMap<>();
+        for (LeaderboardEntry entry : previous) {
+            before.put(entry.getUsername(), entry);
+        }
+
+        List<LeaderboardEntry> entered = new ArrayList<>();
+        List<LeaderboardEntry> moved = new ArrayList<>();
+        for (LeaderboardEntry entry : current) {
+            LeaderboardEntry old = before.remove(entry.getUsername());
+            if (old == null) {
+                entered.add(entry);
+            } else if (!Objects.equals(old.getRank(), entry.getRank()) || !Objects.equals(old.getScore(), entry.getScore())) {
+                moved.add(entry);
+            }
+        }
+
+        return new LeaderboardDelta(gameId, entered, new ArrayList<>(before.keySet()), moved);
+    }
+
+    // Inscritos em um mesmo top N e o último top N enviado a eles
+    private static class Subscription {
+        private final List<Client> clients = new CopyOnWriteArrayList<>();
+        private final ReentrantLock lock = new ReentrantLock();
+        private boolean closed;
+        private volatile List<LeaderboardEntry> last;
+        private volatile long loadedAt;
+
+        void update(List<LeaderboardEntry> entries) {
+            last = entries != null ? entries : List.of();
+            loadedAt = System.currentTimeMillis();
+        }
+    }
+
+    /**
+     * Eventos de um cliente, enviados em ordem por uma virtual thread do sendExecutor.
+     * O tick só enfileira; um cliente lento que acumula mais de max-pending-events é desconectado
+     */
+    private class Client {
+        private final StreamKey key;
+        private final SseEmitter emitter;
+        private final BlockingQueue<SseEmitter.SseEventBuilder> pending;
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private final AtomicBoolean dropped = new AtomicBoolean();
+
+        Client(StreamKey key, SseEmitter emitter) {
+            this.key = key;
+            this.emitter = emitter;
+            this.pending = new ArrayBlockingQueue<>(maxPendingEvents);
+        }
+
+        void offer(SseEmitter.SseEventBuilder event) {
+            if (!pending.offer(event)) {
+                // Quem chama pode estar com o lock da inscrição: a remoção roda no sendExecutor
+                if (dropped.compareAndSet(false, true)) {
+                    logger.debug("Cliente do stream lento, desconectando: {}", key);
+                    sendExecutor.execute(() -> {
+                        unsubscribe(key, emitter);
+                        emitter.complete();
+                    });
+                }
+                return;
+            }
+            schedule();
+        }
+
+        private void schedule() {
+            if (draining.compareAndSet(false, true)) {
+                sendExecutor.execute(this::drain);
+            }
+        }
+
+        private void drain() {
+            try {
+                SseEmitter.SseEventBuilder event;
+                while ((event = pending.poll()) != null) {
+                    emitter.send(event);
+                }
+            } catch (IOException | IllegalStateException e) {
+                // Cliente desconectado: sai da inscrição e não recebe mais nada
+                pending.clear();
+                unsubscribe(key, emitter);
+                return;
+            } finally {
+                draining.set(false);
+            }
+            // Evento enfileirado depois do último poll e antes de liberar o draining
+            if (!pending.isEmpty()) {
+                schedule();
+            }
+        }
+    }
+
+    /**
+     * Limite global de inscritos atingido (leaderboard.stream.max-subscribers)
+     */
+    public static class SubscriberLimitException extends RuntimeException {
+        public SubscriberLimitException() {
+            super("Limite de inscritos no stream atingido");
+        }
+    }
+
+    private record StreamKey(Long gameId, int limit) {
+    }
+}
@@ -0,0 +1,234 @@
+package com.leaderboard.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Skip list com "spans" (mesma estrutura do sorted set do Redis): inserção, remoção,
+ * posição de um membro e acesso por posição em O(log n).
+ * Ordem: maior score primeiro; empate resolvido pelo membro em ordem decrescente (por code point),
+ * como no ZREVRANGE.
+ * Não é thread-safe: quem usa controla o acesso.
+ */
+class OrderStatisticSkipList {
+
+    private static final int MAX_LEVEL = 32;
+    private static final double LEVEL_PROBABILITY = 0.25;
+
+    private final Node header = new Node(null, 0, MAX_LEVEL);
+    private int level = 1;
+    private int length = 0;
+
+    int size() {
+        return length;
+    }
+
+    /**
+     * Insere o membro; não verifica duplicidade (use remove antes de atualizar o score)
+     */
+    void insert(String member, double score) {
+        Node[] update = new Node[MAX_LEVEL];
+        int[] rank = new int[MAX_LEVEL];
+        Node x = header;
+
+        for (int i = level - 1; i >= 0; i--) {
+            rank[i] = i == level - 1 ? 0 : rank[i + 1];
+            while (x.forward[i] != null && precedes(x.forward[i], member, score)) {
+                rank[i] += x.span[i];
+                x = x.forward[i];
+            }
+            update[i] = x;
+        }
+
+        int newLevel = randomLevel();
+        if (newLevel > level) {
+            for (int i = level; i < newLevel; i++) {
+                rank[i] = 0;
+                update[i] = header;
+                update[i].span[i] = length;
+            }
+            level = newLevel;
+        }
+
+        Node node = new Node(member, score, newLevel);
+        for (int i = 0; i < newLevel; i++) {
+            node.forward[i] = update[i].forward[i];
+            update[i].forward[i] = node;
+
+            node.span[i] = update[i].span[i] - (rank[0] - rank[i]);
+            update[i].span[i] = (rank[0] - rank[i]) + 1;
+        }
+
+        for (int i = newLevel; i < level; i++) {
+            update[i].span[i]++;
+        }
+
+        length++;
+    }
+
+    /**
+     * Remove o membro com o score informado. Retorna false se ele não estiver na lista
+     */
+    boolean remove(String member, double score) {
+        Node[] update = new Node[MAX_LEVEL];
+        Node x = header;
+
+        for (int i = level - 1; i >= 0; i--) {
+            while (x.forward[i] != null && precedes(x.forward[i], member, score)) {
+                x = x.forward[i];
+            }
+            update[i] = x;
+        }
+
+        x = x.forward[0];
+        if (x == null || x.score != score || !x.member.equals(member)) {
+            return false;
+        }
+
+        for (int i = 0; i < level; i++) {
+            if (update[i].forward[i] == x) {
+                update[i].span[i] += x.span[i] - 1;
+                update[i].forward[i] = x.forward[i];
+            } else {
+                update[i].span[i]--;
+            }
+        }
+
+        while (level > 1 && header.forward[level - 1] == null) {
+            level--;
+        }
+
+        length--;
+        return true;
+    }
+
+    /**
+     * Posição (base 1) do membro com o score informado, ou 0 se ele não estiver na lista
+     */
+    long rankOf(String member, double score) {
+        long rank = 0;
+        Node x = header;
+
+        for (int i = level - 1; i >= 0; i--) {
+            while (x.forward[i] != null
+                    && (precedes(x.forward[i], member, score) || isSame(x.forward[i], member, score))) {
+                rank += x.span[i];
+                x = x.forward[i];
+            }
+            if (x != header && isSame(x, member, score)) {
+                return rank;
+            }
+        }
+
+        return 0;
+    }
+
+    /**
+     * Membros entre as posições start e end (base 1, inclusivas)
+     */
+    List<Entry> range(long start, long end) {
+        List<Entry> entries = new ArrayList<>();
+        if (start < 1 || start > length || end < start) {
+            return entries;
+        }
+
+        Node x = nodeAt(start);
+        long last = Math.min(end, length);
+        for (long rank = start; rank <= last && x != null; rank++) {
+            entries.add(new Entry(x.member, x.score));
+            x = x.forward[0];
+        }
+
+        return entries;
+    }
+
+    void clear() {
+        for (int i = 0; i < MAX_LEVEL; i++) {
+            header.forward[i] = null;
+            header.span[i] = 0;
+        }
+        level = 1;
+        length = 0;
+    }
+
+    private Node nodeAt(long rank) {
+        long traversed = 0;
+        Node x = header;
+
+        for (int i = level - 1; i >= 0; i--) {
+            while (x.forward[i] != null && traversed + x.span[i] <= rank) {
+                traversed += x.span[i];
+                x = x.forward[i];
+            }
+            if (traversed == rank) {
+                return x;
+            }
+        }
+
+        return null;
+    }
+
+    // Verifica se o nó vem antes de (member, score) na ordem do ranking
+    private static boolean precedes(Node node, String member, double score) {
+        if (node.score != score) {
+            return node.score > score;
+        }
+        return compareCodePoints(node.member, member) > 0;
+    }
+
+    // Ordem por code point, a mesma dos bytes UTF-8 comparados pelo Redis e do ucs_basic no banco.
+    // String.compareTo compara unidades UTF-16 e põe os surrogates (U+10000+) antes de U+E000..U+FFFF
+    static int compareCodePoints(String a, String b) {
+        int i = 0;
+        int j = 0;
+        while (i < a.length() && j < b.length()) {
+            int ca = a.codePointAt(i);
+            int cb = b.codePointAt(j);
+            if (ca != cb) {
+                return Integer.compare(ca, cb);
+            }
+            i += Character.charCount(ca);
+            j += Character.charCount(cb);
+        }
+        return Integer.compare(a.length() - i, b.length() - j);
+    }
+
+    private static boolean isSame(Node node, String member, double score) {
+        return node.score == score && node.member.equals(member);
+    }
+
+    private static int randomLevel() {
+        int newLevel = 1;
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        while (newLevel < MAX_LEVEL && random.nextDouble() < LEVEL_PROBABILITY) {
+            newLevel++;
+        }
+        return newLevel;
+    }
+
+    // Membro e score retornados nas consultas por faixa
+    static class Entry {
+        final String member;
+        final double score;
+
+        Entry(String member, double score) {
+            this.member = member;
+            this.score = score;
+        }
+    }
+
+    private static class Node {
+        final String member;
+        final double score;
+        final Node[] forward;
+        final int[] span;
+
+        Node(String member, double score, int level) {
+            this.member = member;
+            this.score = score;
+            this.forward = new Node[level];
+            this.span = new int[level];
+        }
+    }
+}
@@ -0,0 +1,244 @@
+package com.leaderboard.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Circuit breaker das chamadas ao engine de leaderboard (Redis).
+ *
+ * FECHADO: as chamadas passam e o resultado das últimas window-size entra na janela; com pelo menos
+ * minimum-calls, uma taxa de falhas ou de chamadas lentas acima do limite abre o circuito.
+ * ABERTO: nenhuma chamada chega ao Redis durante open-ms; quem chama recebe OpenException na hora
+ * e segue para o fallback, em vez de esperar o timeout do Lettuce.
+ * MEIO-ABERTO: deixa passar half-open-probes sondas; todas rápidas e sem erro fecham o circuito,
+ * qualquer falha ou lentidão o abre de novo.
+ */
+@Component
+public class RedisCircuitBreaker {
+
+    private static final Logger logger = LoggerFactory.getLogger(RedisCircuitBreaker.class);
+
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    @Value("${leaderboard.circuit-breaker.enabled:true}")
+    private boolean enabled;
+
+    @Value("${leaderboard.circuit-breaker.window-size:20}")
+    private int windowSize;
+
+    @Value("${leaderboard.circuit-breaker.minimum-calls:10}")
+    private int minimumCalls;
+
+    @Value("${leaderboard.circuit-breaker.failure-rate-threshold:50}")
+    private int failureRateThreshold;
+
+    @Value("${leaderboard.circuit-breaker.slow-call-ms:250}")
+    private long slowCallMs;
+
+    @Value("${leaderboard.circuit-breaker.slow-call-rate-threshold:80}")
+    private int slowCallRateThreshold;
+
+    @Value("${leaderboard.circuit-breaker.open-ms:10000}")
+    private long openMs;
+
+    @Value("${leaderboard.circuit-breaker.half-open-probes:3}")
+    private int halfOpenProbes;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private volatile State state = State.CLOSED;
+
+    // Janela circular com o resultado das últimas chamadas (só usada no estado FECHADO)
+    private boolean[] failedCalls;
+    private boolean[] slowCalls;
+    private int next;
+    private int recorded;
+    private int failures;
+    private int slow;
+
+    private long openedAt;
+    private int probesStarted;
+    private int probesSucceeded;
+
+    private long slowCallNanos;
+    private Counter rejectedCounter;
+
+    @PostConstruct
+    void init() {
+        failedCalls = new boolean[windowSize];
+        slowCalls = new boolean[windowSize];
+        slowCallNanos = TimeUnit.MILLISECONDS.toNanos(slowCallMs);
+
+        Gauge.builder("leaderboard.redis.circuit.state", this, breaker -> breaker.state.ordinal())
+                .description("Estado do circuit breaker do Redis: 0 fechado, 1 aberto, 2 meio-aberto")
+                .register(meterRegistry);
+        rejectedCounter = Counter.builder("leaderboard.redis.circuit.rejected")
+                .description("Chamadas ao Redis recusadas com o circuito aberto")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Executa a chamada se o circuito permitir, registrando duração e resultado.
+     * Lança OpenException sem tocar no Redis quando o circuito está aberto
+     */
+    public <T> T execute(Supplier<T> call) {
+        if (!enabled) {
+            return call.get();
+        }
+        if (!tryAcquire()) {
+            rejectedCounter.increment();
+            throw OpenException.INSTANCE;
+        }
+
+        long start = System.nanoTime();
+        boolean failed = true;
+        try {
+            T result = call.get();
+            failed = false;
+            return result;
+        } finally {
+            onResult(failed, System.nanoTime() - start);
+        }
+    }
+
+    public void run(Runnable call) {
+        execute(() -> {
+            call.run();
+            return null;
+        });
+    }
+
+    public State getState() {
+        return state;
+    }
+
+    public boolean isClosed() {
+        return !enabled || state == State.CLOSED;
+    }
+
+    private boolean tryAcquire() {
+        if (state == State.CLOSED) {
+            return true;
+        }
+
+        lock.lock();
+        try {
+            if (state == State.OPEN) {
+                if (System.nanoTime() - openedAt < TimeUnit.MILLISECONDS.toNanos(openMs)) {
+                    return false;
+                }
+                transitionTo(State.HALF_OPEN);
+            }
+            if (state == State.HALF_OPEN) {
+                if (probesStarted >= halfOpenProbes) {
+                    return false;
+                }
+                probesStarted++;
+            }
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void onResult(boolean failed, long durationNanos) {
+        boolean tooSlow = durationNanos >= slowCallNanos;
+
+        lock.lock();
+        try {
+            switch (state) {
+                case CLOSED -> {
+                    record(failed, tooSlow);
+                    if (recorded >= minimumCalls
+                            && (failures * 100 >= failureRateThreshold * recorded
+                            || slow * 100 >= slowCallRateThreshold * recorded)) {
+                        transitionTo(State.OPEN);
+                    }
+                }
+                case HALF_OPEN -> {
+                    if (failed || tooSlow) {
+                        transitionTo(State.OPEN);
+                    } else if (++probesSucceeded >= halfOpenProbes) {
+                        transitionTo(State.CLOSED);
+                    }
+                }
+                case OPEN -> {
+                    // Chamada iniciada antes de o circuito abrir: não muda nada
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void record(boolean failed, boolean tooSlow) {
+        if (recorded == windowSize) {
+            // Janela cheia: a chamada mais antiga sai
+            if (failedCalls[next]) failures--;
+            if (slowCalls[next]) slow--;
+        } else {
+            recorded++;
+        }
+
+        failedCalls[next] = failed;
+        slowCalls[next] = tooSlow;
+        if (failed) failures++;
+        if (tooSlow) slow++;
+        next = (next + 1) % windowSize;
+    }
+
+    // Chamado com o lock adquirido
+    private void transitionTo(State target) {
+        State previous = state;
+        state = target;
+
+        switch (target) {
+            case OPEN -> openedAt = System.nanoTime();
+            case HALF_OPEN -> {
+                probesStarted = 0;
+                probesSucceeded = 0;
+            }
+            case CLOSED -> {
+                Arrays.fill(failedCalls, false);
+                Arrays.fill(slowCalls, false);
+                next = 0;
+                recorded = 0;
+                failures = 0;
+                slow = 0;
+            }
+        }
+
+        meterRegistry.counter("leaderboard.redis.circuit.transitions", "state", target.name().toLowerCase()).increment();
+        if (target == State.OPEN) {
+            logger.warn("Circuit breaker do Redis: {} -> OPEN (leituras no banco, escritas no outbox)", previous);
+        } else {
+            logger.info("Circuit breaker do Redis: {} -> {}", previous, target);
+        }
+    }
+
+    /**
+     * Circuito aberto: a chamada nem foi tentada. Sem stack trace, pois é lançada em toda requisição enquanto dura
+     */
+    public static final class OpenException extends RuntimeException {
+        private static final OpenException INSTANCE = new OpenException();
+
+        private OpenException() {
+            super("Circuit breaker do Redis aberto", null, false, false);
+        }
+    }
+}
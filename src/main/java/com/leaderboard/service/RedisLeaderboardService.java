@@ -1,63 +1,142 @@
 package com.leaderboard.service;
 
 import com.leaderboard.dto.LeaderboardEntry;
-import lombok.RequiredArgsConstructor;
+import io.micrometer.core.annotation.Timed;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisZSetCommands;
+import org.springframework.data.redis.connection.ReturnType;
+import org.springframework.data.redis.connection.zset.Tuple;
+import org.springframework.data.redis.core.RedisCallback;
 import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
 import org.springframework.stereotype.Service;
 
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
-
-@RequiredArgsConstructor
+import java.util.UUID;
 
 @Service
-public class RedisLeaderboardService {
+@ConditionalOnProperty(name = "leaderboard.engine", havingValue = "redis", matchIfMissing = true)
+@Timed(value = "leaderboard.engine", extraTags = {"engine", "redis"},
+        description = "Operações do leaderboard no Redis (tags method e exception)")
+public class RedisLeaderboardService implements LeaderboardEngine {
+
+    private static final Logger logger = LoggerFactory.getLogger(RedisLeaderboardService.class);
+
     private static final String GLOBAL_LEADERBOARD_KEY = "leaderboard:global";
     private static final String GAME_LEADERBOARD_PREFIX = "leaderboard:game:";
     private static final String USER_BEST_SCORES_PREFIX = "user:best_scores:";
 
-    private RedisTemplate<String, Object> redisTemplate;
+    // Formato dos membros gravados; um valor diferente no Redis faz a inicialização reconstruir tudo.
+    // 1 (ausente): username como string JSON; 2: username em UTF-8 puro;
+    // 3: score dos sorted sets é a chave composta do ScoreOrdering
+    private static final String ENCODING_VERSION_KEY = "leaderboard:encoding";
+    private static final String ENCODING_VERSION = "3";
+
+    // Reconstrução: membros acumulados por pipeline e membros por comando ZADD
+    private static final int REBUILD_BATCH_SIZE = 10_000;
+    private static final int REBUILD_ZADD_CHUNK = 1_000;
 
     /**
-     * Adiciona ou atualiza o score do usuário no leaderboard global
+     * Script "keep-max": ZADD GT nos sorted sets + melhor score do usuário, numa única ida ao Redis
      */
-    public void updateGlobalLeaderboard(String username, Integer score) {
-        ZSetOperations<String, Object> zSetOps = redisTemplate.opsForZSet();
+    @SuppressWarnings("rawtypes")
+    private static final RedisScript<List> KEEP_MAX_SCORE_SCRIPT = createScript("scripts/keep_max_score.lua");
 
-        // Verifica se o usuário já tem um score melhor
-        Double currentScore = zSetOps.score(GLOBAL_LEADERBOARD_KEY, username);
-        if (currentScore == null || score > currentScore.intValue()) {
-            zSetOps.add(GLOBAL_LEADERBOARD_KEY, username, score);
-        }
-    }
+    /**
+     * Script de vizinhança: ZREVRANK + ZREVRANGE da janela em torno do membro, numa única ida ao Redis
+     */
+    @SuppressWarnings("rawtypes")
+    private static final RedisScript<List> RANK_WINDOW_SCRIPT = createScript("scripts/rank_window.lua");
 
     /**
-     * Adiciona ou atualiza o score do usuário no leaderboard de um jogo específico
+     * Publicação da reconstrução: RENAME da chave temporária (ou DEL, se o banco não tinha ninguém) + ZCARD, atômicos
      */
-    public void updateGameLeaderboard(Long gameId, String username, Integer score) {
-        String gameKey = GAME_LEADERBOARD_PREFIX + gameId;
-        ZSetOperations<String, Object> zSetOps = redisTemplate.opsForZSet();
+    private static final RedisScript<Long> REBUILD_COMMIT_SCRIPT = createScript("scripts/rebuild_commit.lua", Long.class);
+
+    private final RedisTemplate<String, String> redisTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+
+    public RedisLeaderboardService(@Qualifier("leaderboardRedisTemplate") RedisTemplate<String, String> redisTemplate,
+                                   ApplicationEventPublisher eventPublisher) {
+        this.redisTemplate = redisTemplate;
+        this.eventPublisher = eventPublisher;
+    }
 
-        // Verifica se o usuário já tem um score melhor para este jogo
-        Double currentScore = zSetOps.score(gameKey, username);
-        if (currentScore == null || score > currentScore.intValue()) {
-            zSetOps.add(gameKey, username, score);
+    /**
+     * Registra um score submetido no leaderboard do jogo, no global e no melhor score do usuário,
+     * de forma atômica e em um único round trip. Retorna a nova posição do usuário no jogo.
+     */
+    @Override
+    public Long submitBestScore(Long gameId, String username, Integer score, LocalDateTime achievedAt) {
+        List<Long> ranks = keepMaxScore(username, score, ScoreOrdering.rankKey(score, achievedAt),
+                USER_BEST_SCORES_PREFIX + username, gameId, true);
+        return ranks.get(0);
+    }
 
-            // Também atualiza o leaderboard global se necessário
-            updateGlobalLeaderboard(username, score);
+    /**
+     * Registra vários scores com o mesmo script "keep-max", todos em um único pipeline (EVALSHA).
+     * O SCRIPT LOAD vai na frente no mesmo pipeline, então nenhum EVALSHA recebe NOSCRIPT
+     */
+    @Override
+    public List<Long> submitBestScores(List<BestScoreSubmission> submissions) {
+        List<Long> gameRanks = new ArrayList<>(submissions.size());
+        if (submissions.isEmpty()) return gameRanks;
+
+        byte[] script = KEEP_MAX_SCORE_SCRIPT.getScriptAsString().getBytes(StandardCharsets.UTF_8);
+        String sha = KEEP_MAX_SCORE_SCRIPT.getSha1();
+        byte[] rawGlobalKey = rawKey(GLOBAL_LEADERBOARD_KEY);
+        byte[] rawZsetCount = rawValue("2");
+
+        List<Object> replies = redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            connection.scriptingCommands().scriptLoad(script);
+            for (BestScoreSubmission submission : submissions) {
+                connection.scriptingCommands().evalSha(sha, ReturnType.MULTI, 3,
+                        rawKey(GAME_LEADERBOARD_PREFIX + submission.getGameId()),
+                        rawGlobalKey,
+                        rawKey(USER_BEST_SCORES_PREFIX + submission.getUsername()),
+                        rawValue(submission.getUsername()),
+                        rawValue(String.valueOf(submission.getScore())),
+                        rawZsetCount,
+                        rawValue(String.valueOf(ScoreOrdering.rankKey(submission.getScore(), submission.getAchievedAt()))));
+            }
+            return null;
+        });
+
+        // A primeira resposta é a do SCRIPT LOAD
+        for (int i = 0; i < submissions.size(); i++) {
+            Object reply = i + 1 < replies.size() ? replies.get(i + 1) : null;
+            List<Long> ranks = toRanks(reply instanceof List<?> list ? list : null,
+                    Arrays.asList(submissions.get(i).getGameId(), null));
+            gameRanks.add(ranks.get(0));
         }
+        return gameRanks;
     }
 
     /**
      * Obtém o top N do leaderboard global
      */
+    @Override
     public List<LeaderboardEntry> getGlobalTopN(int limit) {
-        ZSetOperations<String, Object> zSetOps = redisTemplate.opsForZSet();
+        ZSetOperations<String, String> zSetOps = redisTemplate.opsForZSet();
 
         // Busca em ordem reversa (maior para menor score)
-        Set<ZSetOperations.TypedTuple<Object>> topUsers =
+        Set<ZSetOperations.TypedTuple<String>> topUsers =
                 zSetOps.reverseRangeWithScores(GLOBAL_LEADERBOARD_KEY, 0, limit - 1);
 
         return convertToLeaderboardEntries(topUsers, "Global");
@@ -66,11 +145,12 @@ public class RedisLeaderboardService {
     /**
      * Obtém o top N do leaderboard de um jogo específico
      */
+    @Override
     public List<LeaderboardEntry> getGameTopN(Long gameId, int limit) {
         String gameKey = GAME_LEADERBOARD_PREFIX + gameId;
-        ZSetOperations<String, Object> zSetOps = redisTemplate.opsForZSet();
+        ZSetOperations<String, String> zSetOps = redisTemplate.opsForZSet();
 
-        Set<ZSetOperations.TypedTuple<Object>> topUsers =
+        Set<ZSetOperations.TypedTuple<String>> topUsers =
                 zSetOps.reverseRangeWithScores(gameKey, 0, limit - 1);
 
         return convertToLeaderboardEntries(topUsers, "Game " + gameId);
@@ -79,8 +159,9 @@ public class RedisLeaderboardService {
     /**
      * Obtém a posição do usuário no ranking global
      */
+    @Override
     public Long getUserGlobalRank(String username) {
-        ZSetOperations<String, Object> zSetOps = redisTemplate.opsForZSet();
+        ZSetOperations<String, String> zSetOps = redisTemplate.opsForZSet();
         Long rank = zSetOps.reverseRank(GLOBAL_LEADERBOARD_KEY, username);
         return rank != null ? rank + 1 : null; // Redis usa índice 0, queremos começar em 1
     }
@@ -88,9 +169,10 @@ public class RedisLeaderboardService {
     /**
      * Obtém a posição do usuário no ranking de um jogo
      */
+    @Override
     public Long getUserGameRank(Long gameId, String username) {
         String gameKey = GAME_LEADERBOARD_PREFIX + gameId;
-        ZSetOperations<String, Object> zSetOps = redisTemplate.opsForZSet();
+        ZSetOperations<String, String> zSetOps = redisTemplate.opsForZSet();
         Long rank = zSetOps.reverseRank(gameKey, username);
         return rank != null ? rank + 1 : null;
     }
@@ -98,62 +180,71 @@ public class RedisLeaderboardService {
     /**
      * Obtém o score do usuário no leaderboard global
      */
+    @Override
     public Integer getUserGlobalScore(String username) {
-        ZSetOperations<String, Object> zSetOps = redisTemplate.opsForZSet();
+        ZSetOperations<String, String> zSetOps = redisTemplate.opsForZSet();
         Double score = zSetOps.score(GLOBAL_LEADERBOARD_KEY, username);
-        return score != null ? score.intValue() : null;
+        return score != null ? ScoreOrdering.scoreOf(score) : null;
     }
 
     /**
      * Obtém o score do usuário em um jogo específico
      */
+    @Override
     public Integer getUserGameScore(Long gameId, String username) {
         String gameKey = GAME_LEADERBOARD_PREFIX + gameId;
-        ZSetOperations<String, Object> zSetOps = redisTemplate.opsForZSet();
+        ZSetOperations<String, String> zSetOps = redisTemplate.opsForZSet();
         Double score = zSetOps.score(gameKey, username);
-        return score != null ? score.intValue() : null;
+        return score != null ? ScoreOrdering.scoreOf(score) : null;
     }
 
     /**
      * Remove usuário do leaderboard global
      */
+    @Override
     public void removeFromGlobalLeaderboard(String username) {
-        ZSetOperations<String, Object> zSetOps = redisTemplate.opsForZSet();
+        ZSetOperations<String, String> zSetOps = redisTemplate.opsForZSet();
         zSetOps.remove(GLOBAL_LEADERBOARD_KEY, username);
+        eventPublisher.publishEvent(LeaderboardChangedEvent.boardChanged(null));
     }
 
     /**
      * Remove usuário do leaderboard de um jogo
      */
+    @Override
     public void removeFromGameLeaderboard(Long gameId, String username) {
         String gameKey = GAME_LEADERBOARD_PREFIX + gameId;
-        ZSetOperations<String, Object> zSetOps = redisTemplate.opsForZSet();
+        ZSetOperations<String, String> zSetOps = redisTemplate.opsForZSet();
         zSetOps.remove(gameKey, username);
+        eventPublisher.publishEvent(LeaderboardChangedEvent.boardChanged(gameId));
     }
 
     /**
      * Obtém o total de jogadores no leaderboard global
      */
+    @Override
     public Long getGlobalLeaderboardSize() {
-        ZSetOperations<String, Object> zSetOps = redisTemplate.opsForZSet();
+        ZSetOperations<String, String> zSetOps = redisTemplate.opsForZSet();
         return zSetOps.zCard(GLOBAL_LEADERBOARD_KEY);
     }
 
     /**
      * Obtém o total de jogadores no leaderboard de um jogo
      */
+    @Override
     public Long getGameLeaderboardSize(Long gameId) {
         String gameKey = GAME_LEADERBOARD_PREFIX + gameId;
-        ZSetOperations<String, Object> zSetOps = redisTemplate.opsForZSet();
+        ZSetOperations<String, String> zSetOps = redisTemplate.opsForZSet();
         return zSetOps.zCard(gameKey);
     }
 
     /**
      * Obtém jogadores em uma faixa específica do ranking global
      */
+    @Override
     public List<LeaderboardEntry> getGlobalRankRange(long start, long end) {
-        ZSetOperations<String, Object> zSetOps = redisTemplate.opsForZSet();
-        Set<ZSetOperations.TypedTuple<Object>> rangeUsers =
+        ZSetOperations<String, String> zSetOps = redisTemplate.opsForZSet();
+        Set<ZSetOperations.TypedTuple<String>> rangeUsers =
                 zSetOps.reverseRangeWithScores(GLOBAL_LEADERBOARD_KEY, start - 1, end - 1);
 
         return convertToLeaderboardEntries(rangeUsers, "Global", start);
@@ -162,10 +253,11 @@ public class RedisLeaderboardService {
     /**
      * Obtém jogadores em uma faixa específica do ranking de um jogo
      */
+    @Override
     public List<LeaderboardEntry> getGameRankRange(Long gameId, long start, long end) {
         String gameKey = GAME_LEADERBOARD_PREFIX + gameId;
-        ZSetOperations<String, Object> zSetOps = redisTemplate.opsForZSet();
-        Set<ZSetOperations.TypedTuple<Object>> rangeUsers =
+        ZSetOperations<String, String> zSetOps = redisTemplate.opsForZSet();
+        Set<ZSetOperations.TypedTuple<String>> rangeUsers =
                 zSetOps.reverseRangeWithScores(gameKey, start - 1, end - 1);
 
         return convertToLeaderboardEntries(rangeUsers, "Game " + gameId, start);
@@ -174,58 +266,136 @@ public class RedisLeaderboardService {
     /**
      * Limpa todo o leaderboard de um jogo
      */
+    @Override
     public void clearGameLeaderboard(Long gameId) {
         String gameKey = GAME_LEADERBOARD_PREFIX + gameId;
         redisTemplate.delete(gameKey);
+        eventPublisher.publishEvent(LeaderboardChangedEvent.boardChanged(gameId));
     }
 
     /**
      * Limpa o leaderboard global
      */
+    @Override
     public void clearGlobalLeaderboard() {
         redisTemplate.delete(GLOBAL_LEADERBOARD_KEY);
+        eventPublisher.publishEvent(LeaderboardChangedEvent.boardChanged(null));
+    }
+
+    @Override
+    public LeaderboardRebuild rebuildGlobalLeaderboard() {
+        return new RedisRebuild(GLOBAL_LEADERBOARD_KEY, null);
+    }
+
+    @Override
+    public LeaderboardRebuild rebuildGameLeaderboard(Long gameId) {
+        return new RedisRebuild(GAME_LEADERBOARD_PREFIX + gameId, gameId);
+    }
+
+    /**
+     * Leaderboards gravados em outro formato de membro precisam ser reconstruídos a partir do banco
+     */
+    @Override
+    public boolean requiresRebuild() {
+        try {
+            return !ENCODING_VERSION.equals(redisTemplate.opsForValue().get(ENCODING_VERSION_KEY));
+        } catch (Exception e) {
+            // Na dúvida reconstrói: a sincronização a partir do banco sempre grava o formato atual
+            logger.warn("Erro ao verificar formato dos leaderboards no Redis", e);
+            return true;
+        }
     }
 
     /**
-     * Sincroniza leaderboards do Redis com dados do banco
+     * Reconstrução concluída: todos os leaderboards foram regravados no formato atual
      */
-    public void syncLeaderboards() {
-        // Este método será chamado pelo serviço principal para sincronizar dados
-        clearGlobalLeaderboard();
-        // A lógica de sincronização será implementada no LeaderboardService
+    @Override
+    public void rebuildCompleted() {
+        redisTemplate.opsForValue().set(ENCODING_VERSION_KEY, ENCODING_VERSION);
     }
 
     /**
      * Obtém usuários próximos de um usuário específico no ranking
      */
+    @Override
     public List<LeaderboardEntry> getUserNeighbors(String username, int neighbors) {
-        Long rank = getUserGlobalRank(username);
-        if (rank == null) return new ArrayList<>();
-
-        long start = Math.max(1, rank - neighbors);
-        long end = rank + neighbors;
-
-        return getGlobalRankRange(start, end);
+        return rankWindow(GLOBAL_LEADERBOARD_KEY, username, neighbors, "Global");
     }
 
     /**
      * Obtém usuários próximos de um usuário específico no ranking de um jogo
      */
+    @Override
     public List<LeaderboardEntry> getUserGameNeighbors(Long gameId, String username, int neighbors) {
-        Long rank = getUserGameRank(gameId, username);
-        if (rank == null) return new ArrayList<>();
+        return rankWindow(GAME_LEADERBOARD_PREFIX + gameId, username, neighbors, "Game " + gameId);
+    }
+
+    /**
+     * Executa o script de vizinhança e converte a janela retornada para LeaderboardEntry
+     */
+    private List<LeaderboardEntry> rankWindow(String key, String username, int neighbors, String gameName) {
+        List<?> result = redisTemplate.execute(RANK_WINDOW_SCRIPT, List.of(key), username, String.valueOf(neighbors));
+        List<LeaderboardEntry> entries = new ArrayList<>();
+        if (result == null || result.isEmpty()) return entries;
 
-        long start = Math.max(1, rank - neighbors);
-        long end = rank + neighbors;
+        long rank = ((Number) result.get(0)).longValue() + 1; // Redis usa índice 0, queremos começar em 1
+        for (int i = 1; i + 1 < result.size(); i += 2) {
+            LeaderboardEntry entry = new LeaderboardEntry();
+            entry.setRank(rank++);
+            entry.setUsername((String) result.get(i));
+            entry.setScore(toScore(result.get(i + 1)));
+            entry.setGameName(gameName);
 
-        return getGameRankRange(gameId, start, end);
+            entries.add(entry);
+        }
+
+        return entries;
+    }
+
+    // Chaves de ordenação voltam do script como texto
+    private static Integer toScore(Object value) {
+        if (value instanceof Number number) {
+            return ScoreOrdering.scoreOf(number.doubleValue());
+        }
+        return value != null ? ScoreOrdering.scoreOf(Double.parseDouble(value.toString())) : 0;
+    }
+
+    /**
+     * ZREVRANK + ZSCORE no global e em cada jogo, todos em um único pipeline
+     */
+    @Override
+    public List<BoardStanding> getStandings(String username, List<Long> gameIds) {
+        List<Long> boards = new ArrayList<>(gameIds.size() + 1);
+        boards.add(null);
+        boards.addAll(gameIds);
+
+        byte[] member = rawValue(username);
+        List<Object> replies = redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            for (Long gameId : boards) {
+                byte[] key = rawKey(gameId == null ? GLOBAL_LEADERBOARD_KEY : GAME_LEADERBOARD_PREFIX + gameId);
+                connection.zSetCommands().zRevRank(key, member);
+                connection.zSetCommands().zScore(key, member);
+            }
+            return null;
+        });
+
+        List<BoardStanding> standings = new ArrayList<>(boards.size());
+        for (int i = 0; i < boards.size(); i++) {
+            Object rank = replies.get(2 * i);
+            Object score = replies.get(2 * i + 1);
+            standings.add(new BoardStanding(
+                    boards.get(i),
+                    rank instanceof Number number ? number.longValue() + 1 : null, // Redis usa índice 0
+                    score instanceof Number number ? ScoreOrdering.scoreOf(number.doubleValue()) : null));
+        }
+        return standings;
     }
 
     /**
      * Converte TypedTuple do Redis para LeaderboardEntry
      */
     private List<LeaderboardEntry> convertToLeaderboardEntries(
-            Set<ZSetOperations.TypedTuple<Object>> tuples, String gameName) {
+            Set<ZSetOperations.TypedTuple<String>> tuples, String gameName) {
         return convertToLeaderboardEntries(tuples, gameName, 1L);
     }
 
@@ -233,13 +403,13 @@ public class RedisLeaderboardService {
      * Converte TypedTuple do Redis para LeaderboardEntry com rank inicial customizado
      */
     private List<LeaderboardEntry> convertToLeaderboardEntries(
-            Set<ZSetOperations.TypedTuple<Object>> tuples, String gameName, long startRank) {
+            Set<ZSetOperations.TypedTuple<String>> tuples, String gameName, long startRank) {
         List<LeaderboardEntry> entries = new ArrayList<>();
         long rank = startRank;
 
-        for (ZSetOperations.TypedTuple<Object> tuple : tuples) {
-            String username = (String) tuple.getValue();
-            Integer score = tuple.getScore() != null ? tuple.getScore().intValue() : 0;
+        for (ZSetOperations.TypedTuple<String> tuple : tuples) {
+            String username = tuple.getValue();
+            Integer score = tuple.getScore() != null ? ScoreOrdering.scoreOf(tuple.getScore()) : 0;
 
             LeaderboardEntry entry = new LeaderboardEntry();
             entry.setRank(rank++);
@@ -253,29 +423,20 @@ public class RedisLeaderboardService {
         return entries;
     }
 
-    /**
-     * Atualiza melhor score do usuário (cache)
-     */
-    public void updateUserBestScore(String username, Integer score) {
-        String userKey = USER_BEST_SCORES_PREFIX + username;
-        Integer currentBest = (Integer) redisTemplate.opsForValue().get(userKey);
-
-        if (currentBest == null || score > currentBest) {
-            redisTemplate.opsForValue().set(userKey, score);
-        }
-    }
-
     /**
      * Obtém melhor score do usuário do cache
      */
+    @Override
     public Integer getUserBestScore(String username) {
         String userKey = USER_BEST_SCORES_PREFIX + username;
-        return (Integer) redisTemplate.opsForValue().get(userKey);
+        String best = redisTemplate.opsForValue().get(userKey);
+        return best != null ? Integer.valueOf(best) : null;
     }
 
     /**
      * Verifica se os leaderboards estão sincronizados
      */
+    @Override
     public boolean isLeaderboardHealthy() {
         try {
             Long globalSize = getGlobalLeaderboardSize();
@@ -288,6 +449,7 @@ public class RedisLeaderboardService {
     /**
      * Obtém estatísticas dos leaderboards
      */
+    @Override
     public LeaderboardStats getLeaderboardStats() {
         LeaderboardStats stats = new LeaderboardStats();
         stats.setGlobalPlayersCount(getGlobalLeaderboardSize());
@@ -296,25 +458,164 @@ public class RedisLeaderboardService {
         return stats;
     }
 
-    // Classe interna para estatísticas
-    public static class LeaderboardStats {
-        private Long globalPlayersCount;
-        private boolean redisHealthy;
+    /**
+     * Executa o script "keep-max" no leaderboard do jogo (se gameId não for null) e no global (se global),
+     * publica um LeaderboardChangedEvent para cada leaderboard em que o score mudou
+     * e retorna as posições em base 1, na mesma ordem
+     */
+    private List<Long> keepMaxScore(String username, Integer score, long rankKey,
+                                    String bestScoreKey, Long gameId, boolean global) {
+        List<String> keys = new ArrayList<>(3);
+        List<Long> boards = new ArrayList<>(2); // gameId de cada sorted set; null = global
+        if (gameId != null) {
+            keys.add(GAME_LEADERBOARD_PREFIX + gameId);
+            boards.add(gameId);
+        }
+        if (global) {
+            keys.add(GLOBAL_LEADERBOARD_KEY);
+            boards.add(null);
+        }
+        int zsets = keys.size();
+        if (bestScoreKey != null) {
+            keys.add(bestScoreKey);
+        }
+
+        List<?> result = redisTemplate.execute(KEEP_MAX_SCORE_SCRIPT, keys,
+                username, String.valueOf(score), String.valueOf(zsets), String.valueOf(rankKey));
+        return toRanks(result, boards);
+    }
+
+    /**
+     * Converte a resposta do script "keep-max" em posições base 1 e publica os eventos de mudança
+     */
+    private List<Long> toRanks(List<?> result, List<Long> boards) {
+        int zsets = boards.size();
+        List<Long> ranks = new ArrayList<>(zsets);
+        for (int i = 0; i < zsets; i++) {
+            long value = longAt(result, i, -1);
+            Long rank = value >= 0 ? value + 1 : null; // Redis usa índice 0, queremos começar em 1
+            ranks.add(rank);
+
+            if (longAt(result, zsets + i, 0) > 0) {
+                eventPublisher.publishEvent(LeaderboardChangedEvent.memberChanged(boards.get(i), rank));
+            }
+        }
+        return ranks;
+    }
+
+    private static long longAt(List<?> result, int index, long defaultValue) {
+        Object value = result != null && index < result.size() ? result.get(index) : null;
+        return value instanceof Number number ? number.longValue() : defaultValue;
+    }
+
+    @SuppressWarnings("rawtypes")
+    private static RedisScript<List> createScript(String location) {
+        return createScript(location, List.class);
+    }
+
+    private static <T> RedisScript<T> createScript(String location, Class<T> resultType) {
+        DefaultRedisScript<T> script = new DefaultRedisScript<>();
+        script.setLocation(new ClassPathResource(location));
+        script.setResultType(resultType);
+        return script;
+    }
+
+    private static byte[] rawKey(String key) {
+        return key.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static byte[] rawValue(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Reconstrução via chave temporária: ZADDs com vários membros enviados em pipeline e, no commit,
+     * RENAME sobre o leaderboard atual. O resultado é exatamente o que está no banco; as submissões feitas
+     * durante a leitura são reaplicadas depois por quem conduz a sincronização (LeaderboardService)
+     */
+    private class RedisRebuild implements LeaderboardRebuild {
+        private final String targetKey;
+        private final String tempKey;
+        private final Long gameId;
+        private final boolean withBestScores;
+        private final Map<String, Long> buffer = new HashMap<>(); // membro -> chave de ordenação
+        private boolean written = false;
+        private boolean committed = false;
+
+        RedisRebuild(String targetKey, Long gameId) {
+            this.targetKey = targetKey;
+            this.tempKey = targetKey + ":rebuild:" + UUID.randomUUID();
+            this.gameId = gameId;
+            // Só a reconstrução do global recarrega o melhor score de cada usuário
+            this.withBestScores = gameId == null;
+        }
+
+        @Override
+        public void add(String username, Integer score, LocalDateTime achievedAt) {
+            buffer.merge(username, ScoreOrdering.rankKey(score, achievedAt), Math::max);
+            if (buffer.size() >= REBUILD_BATCH_SIZE) {
+                flush();
+            }
+        }
+
+        @Override
+        public long commit() {
+            flush();
+
+            Long size = redisTemplate.execute(REBUILD_COMMIT_SCRIPT, List.of(tempKey, targetKey));
+            committed = true;
+            eventPublisher.publishEvent(LeaderboardChangedEvent.boardChanged(gameId));
 
-        public Long getGlobalPlayersCount() {
-            return globalPlayersCount;
+            return size != null ? size : 0;
         }
 
-        public void setGlobalPlayersCount(Long globalPlayersCount) {
-            this.globalPlayersCount = globalPlayersCount;
+        @Override
+        public void close() {
+            if (!committed && written) {
+                redisTemplate.delete(tempKey);
+            }
         }
 
-        public boolean isRedisHealthy() {
-            return redisHealthy;
+        private void flush() {
+            if (buffer.isEmpty()) return;
+
+            redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                byte[] rawTempKey = rawKey(tempKey);
+                Set<Tuple> tuples = new HashSet<>();
+                Map<byte[], byte[]> bestScores = new HashMap<>();
+
+                for (Map.Entry<String, Long> entry : buffer.entrySet()) {
+                    tuples.add(Tuple.of(rawValue(entry.getKey()), entry.getValue().doubleValue()));
+                    if (withBestScores) {
+                        bestScores.put(rawKey(USER_BEST_SCORES_PREFIX + entry.getKey()),
+                                rawValue(String.valueOf(ScoreOrdering.scoreOf(entry.getValue()))));
+                    }
+
+                    if (tuples.size() == REBUILD_ZADD_CHUNK) {
+                        writeChunk(connection, rawTempKey, tuples, bestScores);
+                        tuples = new HashSet<>();
+                        bestScores = new HashMap<>();
+                    }
+                }
+                writeChunk(connection, rawTempKey, tuples, bestScores);
+
+                return null;
+            });
+
+            buffer.clear();
+            written = true;
         }
 
-        public void setRedisHealthy(boolean redisHealthy) {
-            this.redisHealthy = redisHealthy;
+        private void writeChunk(RedisConnection connection, byte[] rawTempKey, Set<Tuple> tuples,
+                                Map<byte[], byte[]> bestScores) {
+            if (!tuples.isEmpty()) {
+                // GT: se o usuário aparecer em mais de um lote, fica o maior score
+                connection.zSetCommands().zAdd(rawTempKey, tuples, RedisZSetCommands.ZAddArgs.empty().gt());
+            }
+            if (!bestScores.isEmpty()) {
+                // Valor do banco; um melhor score gravado durante a leitura volta na reaplicação
+                connection.stringCommands().mSet(bestScores);
+            }
         }
     }
-}
\ No newline at end of file
+}
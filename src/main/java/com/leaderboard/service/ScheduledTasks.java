@@ -1,6 +1,7 @@
 package com.leaderboard.service;
 
-
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
@@ -8,9 +9,17 @@ import org.springframework.stereotype.Component;
 @Component
 public class ScheduledTasks {
 
+    private static final Logger logger = LoggerFactory.getLogger(ScheduledTasks.class);
+
     @Autowired
     private LeaderboardService leaderboardService;
 
+    @Autowired
+    private LeaderboardReplayBuffer replayBuffer;
+
+    @Autowired
+    private RedisCircuitBreaker circuitBreaker;
+
     /**
      * Sincroniza leaderboards a cada hora
      */
@@ -18,11 +27,33 @@ public class ScheduledTasks {
     public void syncLeaderboards() {
         try {
             if (!leaderboardService.isRedisHealthy()) {
-                System.out.println("Redis não está saudável, iniciando sincronização...");
+                logger.info("Redis não está saudável, iniciando sincronização...");
+                leaderboardService.syncLeaderboards();
+            }
+        } catch (Exception e) {
+            logger.error("Erro na sincronização agendada: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Reenvia ao Redis as atualizações que ficaram no outbox enquanto ele estava indisponível.
+     * Se o outbox transbordou, reconstrói os leaderboards a partir do banco assim que o circuito fechar
+     */
+    @Scheduled(fixedDelayString = "${leaderboard.circuit-breaker.replay-interval-ms:1000}")
+    public void replayLeaderboardUpdates() {
+        try {
+            // Só consulta o outbox se houver entradas pendentes ou o circuito não estiver fechado
+            int replayed = replayBuffer.replay();
+            if (replayed > 0) {
+                logger.info("Replay: {} atualizações de leaderboard reenviadas ao Redis", replayed);
+            }
+
+            if (circuitBreaker.isClosed() && replayBuffer.takeResyncRequired()) {
+                logger.warn("Outbox de leaderboard transbordou, iniciando sincronização completa...");
                 leaderboardService.syncLeaderboards();
             }
         } catch (Exception e) {
-            System.err.println("Erro na sincronização agendada: " + e.getMessage());
+            logger.error("Erro no replay das atualizações de leaderboard: {}", e.getMessage());
         }
     }
 
@@ -35,19 +66,18 @@ public class ScheduledTasks {
             LeaderboardService.LeaderboardStats stats = leaderboardService.getLeaderboardStatistics();
 
             if (!stats.isRedisHealthy()) {
-                System.err.println("ALERTA: Redis não está funcionando corretamente!");
+                logger.warn("Redis não está funcionando corretamente!");
             }
 
             if (stats.isSyncNeeded()) {
-                System.out.println("INFO: Sincronização necessária detectada.");
+                logger.info("Sincronização necessária detectada.");
             }
 
-            System.out.println("Health Check - Redis: " + stats.isRedisHealthy() +
-                    ", Players DB: " + stats.getTotalPlayersInDb() +
-                    ", Players Redis: " + stats.getGlobalPlayersInRedis());
+            logger.info("Health Check - Redis: {}, Players DB: {}, Players Redis: {}",
+                    stats.isRedisHealthy(), stats.getTotalPlayersInDb(), stats.getGlobalPlayersInRedis());
 
         } catch (Exception e) {
-            System.err.println("Erro no health check: " + e.getMessage());
+            logger.error("Erro no health check: {}", e.getMessage());
         }
     }
 }
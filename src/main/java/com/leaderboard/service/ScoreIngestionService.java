@@ -0,0 +1,292 @@
+package com.leaderboard.service;
+
+import com.leaderboard.entity.Score;
+import com.leaderboard.repository.GameRepository;
+import com.leaderboard.repository.ScoreRepository;
+import com.leaderboard.repository.UserRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Ingestão "write-behind" de scores: as submissões entram em uma fila limitada em memória
+ * e são gravadas no PostgreSQL em lotes, usando o batch de INSERTs do Hibernate.
+ */
+@Service
+public class ScoreIngestionService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ScoreIngestionService.class);
+
+    private static final String WRITE_BEHIND_MODE = "write-behind";
+
+    @Autowired
+    private ScoreRepository scoreRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private GameRepository gameRepository;
+
+    @Autowired
+    private BestScoreService bestScoreService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private LeaderboardReplayBuffer replayBuffer;
+
+    @Value("${leaderboard.ingestion.mode:sync}")
+    private String mode;
+
+    @Value("${leaderboard.ingestion.queue-capacity:10000}")
+    private int queueCapacity;
+
+    @Value("${leaderboard.ingestion.batch-size:500}")
+    private int batchSize;
+
+    @Value("${leaderboard.ingestion.offer-timeout-ms:50}")
+    private long offerTimeoutMs;
+
+    @Value("${leaderboard.ingestion.fallback-file:data/pending-scores.log}")
+    private String fallbackFile;
+
+    private BlockingQueue<PendingScore> queue;
+
+    @PostConstruct
+    void init() {
+        queue = new ArrayBlockingQueue<>(queueCapacity);
+    }
+
+    /**
+     * Indica se a ingestão está em modo write-behind
+     */
+    public boolean isWriteBehind() {
+        return WRITE_BEHIND_MODE.equalsIgnoreCase(mode);
+    }
+
+    /**
+     * Coloca o score na fila de gravação. Retorna false se a fila continuar cheia após o timeout,
+     * e nesse caso quem chamou deve gravar o score de forma síncrona (backpressure).
+     * Com leaderboardPending, a atualização do leaderboard vai para o outbox na mesma transação do lote
+     */
+    public boolean enqueue(Score score, boolean leaderboardPending) {
+        PendingScore pending = new PendingScore(
+                score.getUser().getId(),
+                score.getGame().getId(),
+                score.getScore(),
+                score.getSubmittedAt() != null ? score.getSubmittedAt() : LocalDateTime.now(),
+                leaderboardPending,
+                score.getUser().getUsername()
+        );
+
+        try {
+            return queue.offer(pending, offerTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    /**
+     * Quantidade de scores aguardando gravação
+     */
+    public int getPendingCount() {
+        return queue.size();
+    }
+
+    /**
+     * Esvazia a fila em lotes de até batchSize scores
+     */
+    @Scheduled(fixedDelayString = "${leaderboard.ingestion.flush-interval-ms:200}")
+    public void flush() {
+        List<PendingScore> batch = new ArrayList<>(batchSize);
+
+        while (queue.drainTo(batch, batchSize) > 0) {
+            persistOrSpill(batch);
+            batch.clear();
+        }
+    }
+
+    /**
+     * Grava o que ainda estiver na fila antes de desligar; se o banco falhar, vai para o arquivo de fallback
+     */
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+
+    /**
+     * Reprocessa scores que ficaram no arquivo de fallback em uma execução anterior
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void replayFallbackFile() {
+        Path path = Path.of(fallbackFile);
+        Path replaying = path.resolveSibling(path.getFileName() + ".replaying");
+
+        try {
+            // Sobra de uma queda no meio de um replay anterior
+            if (Files.exists(replaying)) {
+                replay(replaying);
+            }
+            if (Files.exists(path)) {
+                // O spill continua acrescentando no arquivo principal enquanto este é reprocessado
+                Files.move(path, replaying, StandardCopyOption.ATOMIC_MOVE);
+                replay(replaying);
+            }
+        } catch (Exception e) {
+            logger.error("Erro ao recuperar scores do arquivo de fallback: {}", e.getMessage());
+        }
+    }
+
+    private void replay(Path path) throws IOException {
+        List<String> lines = new ArrayList<>();
+        for (String line : Files.readAllLines(path, StandardCharsets.UTF_8)) {
+            if (!line.isBlank()) {
+                lines.add(line);
+            }
+        }
+
+        // Após cada lote confirmado o arquivo é regravado só com o restante,
+        // para que uma queda no meio não grave de novo os lotes já confirmados
+        for (int from = 0; from < lines.size(); from += batchSize) {
+            List<PendingScore> batch = new ArrayList<>(batchSize);
+            for (String line : lines.subList(from, Math.min(from + batchSize, lines.size()))) {
+                batch.add(PendingScore.parse(line));
+            }
+            persist(batch);
+            rewrite(path, lines.subList(Math.min(from + batchSize, lines.size()), lines.size()));
+        }
+
+        Files.deleteIfExists(path);
+        logger.info("Scores pendentes recuperados do arquivo de fallback: {}", lines.size());
+    }
+
+    // Grava em um arquivo temporário e troca de uma vez, para nunca deixar o arquivo pela metade
+    private void rewrite(Path path, List<String> remaining) throws IOException {
+        Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+        Files.write(temp, remaining, StandardCharsets.UTF_8);
+        Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private void persistOrSpill(List<PendingScore> batch) {
+        try {
+            persist(batch);
+        } catch (Exception e) {
+            logger.warn("Erro ao gravar lote de scores, salvando no arquivo de fallback: {}", e.getMessage());
+            spill(batch);
+        }
+    }
+
+    private void persist(List<PendingScore> batch) {
+        transactionTemplate.executeWithoutResult(status -> {
+            List<Score> scores = new ArrayList<>(batch.size());
+            for (PendingScore pending : batch) {
+                Score score = new Score(
+                        userRepository.getReferenceById(pending.userId),
+                        gameRepository.getReferenceById(pending.gameId),
+                        pending.score
+                );
+                score.setSubmittedAt(pending.submittedAt);
+                scores.add(score);
+            }
+            scoreRepository.saveAll(scores);
+
+            List<BestScoreSubmission> leaderboardPending = new ArrayList<>();
+            for (PendingScore pending : batch) {
+                bestScoreService.record(pending.userId, pending.username, pending.gameId, pending.score, pending.submittedAt);
+                if (pending.leaderboardPending) {
+                    leaderboardPending.add(new BestScoreSubmission(
+                            pending.gameId, pending.username, pending.score, pending.submittedAt));
+                }
+            }
+
+            // Outbox no mesmo commit dos scores: sem score gravado, não há o que reenviar ao Redis
+            if (!leaderboardPending.isEmpty()) {
+                replayBuffer.addAll(leaderboardPending);
+            }
+        });
+    }
+
+    private void spill(List<PendingScore> batch) {
+        List<String> lines = new ArrayList<>(batch.size());
+        for (PendingScore pending : batch) {
+            lines.add(pending.format());
+        }
+
+        try {
+            Path path = Path.of(fallbackFile);
+            if (path.getParent() != null) {
+                Files.createDirectories(path.getParent());
+            }
+            Files.write(path, lines, StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        } catch (IOException e) {
+            logger.error("{} scores perdidos, falha no arquivo de fallback: {}", batch.size(), e.getMessage());
+        }
+    }
+
+    // Score aguardando gravação, apenas com os ids das associações
+    // (e o username, para o outbox quando o Redis não recebeu a atualização)
+    private static class PendingScore {
+        private final Long userId;
+        private final Long gameId;
+        private final Integer score;
+        private final LocalDateTime submittedAt;
+        private final boolean leaderboardPending;
+        private final String username;
+
+        PendingScore(Long userId, Long gameId, Integer score, LocalDateTime submittedAt,
+                     boolean leaderboardPending, String username) {
+            this.userId = userId;
+            this.gameId = gameId;
+            this.score = score;
+            this.submittedAt = submittedAt;
+            this.leaderboardPending = leaderboardPending;
+            this.username = username;
+        }
+
+        // O username vai por último: pode conter ';'
+        String format() {
+            return userId + ";" + gameId + ";" + score + ";" + submittedAt + ";"
+                    + (leaderboardPending ? 1 : 0) + ";" + username;
+        }
+
+        static PendingScore parse(String line) {
+            String[] parts = line.split(";", 6);
+            if (parts.length != 6) {
+                throw new IllegalArgumentException("Linha inválida no arquivo de fallback: " + line);
+            }
+            return new PendingScore(
+                    Long.valueOf(parts[0]),
+                    Long.valueOf(parts[1]),
+                    Integer.valueOf(parts[2]),
+                    LocalDateTime.parse(parts[3]),
+                    "1".equals(parts[4]),
+                    parts[5]
+            );
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.leaderboard.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Chave de ordenação dos leaderboards: score nos bits altos e o momento em que foi alcançado,
+ * invertido, nos bits baixos. Em scores iguais, quem chegou primeiro fica na frente.
+ *
+ * A chave cabe nos 53 bits de mantissa de um double (31 bits de score + 22 de tempo), então é exata
+ * como score de sorted set no Redis, no Board em memória e na coluna rank_key do banco:
+ * os três backends ordenam os empates da mesma forma.
+ * O tempo tem resolução de minutos a partir de EPOCH, até TIME_LIMIT (2^22 minutos, por volta de
+ * dezembro de 2032); dentro do mesmo minuto o empate continua sendo decidido pelo membro/usuário.
+ * Fora da faixa o tempo é saturado: a ordem por score continua correta, mas os empates passam a ser
+ * decididos só pelo usuário. Um aviso é registrado na primeira vez; mudar EPOCH ou a resolução exige
+ * nova versão de codificação no Redis e recalcular rank_key no banco.
+ */
+public final class ScoreOrdering {
+
+    public static final LocalDateTime EPOCH = LocalDateTime.of(2025, 1, 1, 0, 0);
+
+    private static final int TIME_BITS = 22;
+    private static final long TIME_MASK = (1L << TIME_BITS) - 1;
+
+    public static final LocalDateTime TIME_LIMIT = EPOCH.plusMinutes(TIME_MASK);
+
+    private static final Logger logger = LoggerFactory.getLogger(ScoreOrdering.class);
+    private static final AtomicBoolean outOfRangeWarned = new AtomicBoolean();
+
+    private ScoreOrdering() {
+    }
+
+    /**
+     * Chave composta do score alcançado em achievedAt (null = agora)
+     */
+    public static long rankKey(int score, LocalDateTime achievedAt) {
+        LocalDateTime at = achievedAt != null ? achievedAt : LocalDateTime.now();
+        long minutes = Duration.between(EPOCH, at).toMinutes();
+        if (minutes < 0 || minutes > TIME_MASK) {
+            if (outOfRangeWarned.compareAndSet(false, true)) {
+                logger.warn("Horário {} fora da faixa da rank_key ({} a {}): empates deixam de considerar o tempo",
+                        at, EPOCH, TIME_LIMIT);
+            }
+            minutes = Math.max(0, Math.min(TIME_MASK, minutes));
+        }
+        return ((long) score << TIME_BITS) | (TIME_MASK - minutes);
+    }
+
+    /**
+     * Score original de uma chave composta
+     */
+    public static int scoreOf(long rankKey) {
+        return (int) (rankKey >>> TIME_BITS);
+    }
+
+    public static int scoreOf(double rankKey) {
+        return scoreOf((long) rankKey);
+    }
+}
@@ -1,6 +1,10 @@
 // ScoreService.java - VERSÃO FINAL CORRIGIDA
 package com.leaderboard.service;
 
+import com.leaderboard.dto.BatchScoreResult;
+import com.leaderboard.dto.BatchScoreSubmissionRequest;
+import com.leaderboard.dto.CursorPage;
+import com.leaderboard.dto.KeysetCursor;
 import com.leaderboard.dto.ScoreDto;
 import com.leaderboard.dto.ScoreSubmissionRequest;
 import com.leaderboard.entity.Game;
@@ -8,22 +12,38 @@ import com.leaderboard.entity.Score;
 import com.leaderboard.entity.User;
 import com.leaderboard.exception.ResourceNotFoundException;
 import com.leaderboard.repository.ScoreRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDateTime;
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
+/**
+ * Submissão e consulta de scores. Sem @Transactional na classe: só a gravação no banco roda em transação
+ * (TransactionTemplate), e as chamadas ao Redis acontecem depois do commit, sem segurar uma conexão do pool
+ */
 @Service
-@Transactional
 public class ScoreService {
 
+    private static final Logger logger = LoggerFactory.getLogger(ScoreService.class);
+
+    private static final int RECENT_SCORES_MAX = 10;
+
     @Autowired
     private ScoreRepository scoreRepository;
 
@@ -34,11 +54,53 @@ public class ScoreService {
     private GameService gameService;
 
     @Autowired
-    private RedisLeaderboardService redisLeaderboardService;
+    private LeaderboardEngine leaderboardEngine;
+
+    @Autowired
+    private ScoreIngestionService scoreIngestionService;
+
+    @Autowired
+    private BestScoreService bestScoreService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private RedisCircuitBreaker circuitBreaker;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private LeaderboardReplayBuffer replayBuffer;
+
+    @Value("${leaderboard.batch.allowed-submitters:}")
+    private Set<String> batchSubmitters;
+
+    // Fases da submissão: busca de usuário/jogo, gravação no banco e atualização dos leaderboards
+    private Timer lookupTimer;
+    private Timer insertTimer;
+    private Timer leaderboardTimer;
+
+    @PostConstruct
+    void initMetrics() {
+        lookupTimer = submitPhaseTimer("lookup");
+        insertTimer = submitPhaseTimer("insert");
+        leaderboardTimer = submitPhaseTimer("leaderboard");
+    }
+
+    private Timer submitPhaseTimer(String phase) {
+        return Timer.builder("score.submit.phase")
+                .description("Duração de cada fase da submissão de score")
+                .tag("phase", phase)
+                .register(meterRegistry);
+    }
 
     public ScoreDto submitScore(String username, ScoreSubmissionRequest request) {
+        Timer.Sample lookup = Timer.start(meterRegistry);
         User user = userService.findByUsername(username);
         Game game = gameService.findById(request.getGameId());
+        lookup.stop(lookupTimer);
 
         // Validar se o score é válido
         if (request.getScore() < 0) {
@@ -47,34 +109,179 @@ public class ScoreService {
 
         // Criar novo score
         Score score = new Score(user, game, request.getScore());
-        Score savedScore = scoreRepository.save(score);
+
+        if (scoreIngestionService.isWriteBehind()) {
+            return submitWriteBehind(score);
+        }
+
+        Timer.Sample insert = Timer.start(meterRegistry);
+        Score savedScore = persist(score);
+        insert.stop(insertTimer);
 
         // Atualizar leaderboards no Redis
-        updateLeaderboards(username, game.getId(), request.getScore());
+        updateLeaderboards(username, game.getId(), request.getScore(), savedScore.getSubmittedAt());
+
+        return convertToDto(savedScore);
+    }
+
+    /**
+     * Confirma o score após atualizar o Redis e deixa a gravação no banco para o lote da fila
+     */
+    private ScoreDto submitWriteBehind(Score score) {
+        score.setSubmittedAt(LocalDateTime.now());
+        String username = score.getUser().getUsername();
+        Long gameId = score.getGame().getId();
+
+        // Se o Redis falhar, a entrada do outbox só é gravada junto com o score (no lote da fila),
+        // para que o replay nunca publique um score que acabou não sendo gravado
+        boolean leaderboardPending = !tryUpdateLeaderboards(username, gameId, score.getScore(), score.getSubmittedAt());
 
+        if (scoreIngestionService.enqueue(score, leaderboardPending)) {
+            // Ainda sem id: o score só ganha id quando o lote for gravado
+            ScoreDto accepted = convertToDto(score);
+            accepted.setPending(true);
+            return accepted;
+        }
+
+        // Fila cheia: grava de forma síncrona, segurando o cliente até o banco responder
+        Score savedScore = persist(score);
+        if (leaderboardPending) {
+            replayBuffer.addOrRequestResync(List.of(
+                    new BestScoreSubmission(gameId, username, savedScore.getScore(), savedScore.getSubmittedAt())));
+        }
         return convertToDto(savedScore);
     }
 
-    private void updateLeaderboards(String username, Long gameId, Integer score) {
+    /**
+     * Indica se o usuário pode submeter scores em nome de outros jogadores (ex.: servidores de jogo)
+     */
+    public boolean canSubmitBatch(String username) {
+        return batchSubmitters.contains(username);
+    }
+
+    /**
+     * Submete os scores de vários jogadores de uma vez: usuários e jogos resolvidos com uma query cada,
+     * INSERTs em lote e todas as atualizações de leaderboard em um único pipeline do Redis.
+     * Itens inválidos não impedem os demais; o resultado de cada item vem na mesma posição
+     */
+    public List<BatchScoreResult> submitScores(List<BatchScoreSubmissionRequest.Item> items) {
+        Map<String, User> users = userService.findAllByUsernames(
+                items.stream().map(BatchScoreSubmissionRequest.Item::getUsername).collect(Collectors.toSet()));
+        Map<Long, Game> games = gameService.findAllByIds(
+                items.stream().map(BatchScoreSubmissionRequest.Item::getGameId).collect(Collectors.toSet()));
+
+        List<BatchScoreResult> results = new ArrayList<>(items.size());
+        List<Score> scores = new ArrayList<>();
+        List<BatchScoreResult> accepted = new ArrayList<>();
+
+        for (BatchScoreSubmissionRequest.Item item : items) {
+            BatchScoreResult result = new BatchScoreResult();
+            result.setUsername(item.getUsername());
+            result.setGameId(item.getGameId());
+            result.setScore(item.getScore());
+            results.add(result);
+
+            User user = users.get(item.getUsername());
+            Game game = games.get(item.getGameId());
+            if (user == null) {
+                result.setError("Usuário não encontrado: " + item.getUsername());
+            } else if (game == null) {
+                result.setError("Jogo não encontrado: " + item.getGameId());
+            } else if (item.getScore() == null || item.getScore() < 0) {
+                result.setError("Score não pode ser negativo");
+            } else {
+                scores.add(new Score(user, game, item.getScore()));
+                accepted.add(result);
+            }
+        }
+
+        if (scores.isEmpty()) return results;
+
+        // saveAll com a sequência em pool + hibernate.jdbc.batch_size vira INSERTs em lote
+        List<Score> savedScores = transactionTemplate.execute(status -> {
+            List<Score> saved = scoreRepository.saveAll(scores);
+            saved.forEach(this::recordBestScore);
+            return saved;
+        });
+        for (int i = 0; i < savedScores.size(); i++) {
+            accepted.get(i).setScoreId(savedScores.get(i).getId());
+            accepted.get(i).setSuccess(true);
+        }
+
+        updateLeaderboards(savedScores, accepted);
+        return results;
+    }
+
+    private void updateLeaderboards(List<Score> scores, List<BatchScoreResult> results) {
+        List<BestScoreSubmission> submissions = new ArrayList<>(scores.size());
+        for (Score score : scores) {
+            submissions.add(new BestScoreSubmission(
+                    score.getGame().getId(), score.getUser().getUsername(), score.getScore(), score.getSubmittedAt()));
+        }
+
+        try {
+            List<Long> ranks = circuitBreaker.execute(() -> leaderboardEngine.submitBestScores(submissions));
+            for (int i = 0; i < ranks.size() && i < results.size(); i++) {
+                results.get(i).setGameRank(ranks.get(i));
+            }
+        } catch (Exception e) {
+            // Circuito aberto ou falha: reenviados quando o Redis voltar (resultado sem gameRank)
+            replayBuffer.addOrRequestResync(submissions);
+            if (!(e instanceof RedisCircuitBreaker.OpenException)) {
+                logger.warn("Erro ao atualizar Redis em lote: {}", e.getMessage());
+            }
+        }
+    }
+
+    // Score e melhores scores na mesma transação, confirmada antes de qualquer chamada ao Redis
+    private Score persist(Score score) {
+        return transactionTemplate.execute(status -> {
+            Score saved = scoreRepository.save(score);
+            recordBestScore(saved);
+            return saved;
+        });
+    }
+
+    private void recordBestScore(Score score) {
+        bestScoreService.record(score.getUser().getId(), score.getUser().getUsername(), score.getGame().getId(),
+                score.getScore(), score.getSubmittedAt());
+    }
+
+    private void updateLeaderboards(String username, Long gameId, Integer score, LocalDateTime achievedAt) {
+        if (!tryUpdateLeaderboards(username, gameId, score, achievedAt)) {
+            // Circuito aberto ou falha: reenviado quando o Redis voltar
+            replayBuffer.addOrRequestResync(List.of(new BestScoreSubmission(gameId, username, score, achievedAt)));
+        }
+    }
+
+    /**
+     * Atualiza jogo, global e melhor score do usuário em um único script atômico.
+     * Retorna false se o Redis não recebeu a atualização (circuito aberto ou falha)
+     */
+    private boolean tryUpdateLeaderboards(String username, Long gameId, Integer score, LocalDateTime achievedAt) {
+        Timer.Sample sample = Timer.start(meterRegistry);
         try {
-            redisLeaderboardService.updateGameLeaderboard(gameId, username, score);
-            redisLeaderboardService.updateUserBestScore(username, score);
+            circuitBreaker.execute(() -> leaderboardEngine.submitBestScore(gameId, username, score, achievedAt));
+            return true;
         } catch (Exception e) {
-            System.err.println("Erro ao atualizar Redis: " + e.getMessage());
+            if (!(e instanceof RedisCircuitBreaker.OpenException)) {
+                logger.warn("Erro ao atualizar Redis: {}", e.getMessage());
+            }
+            return false;
+        } finally {
+            sample.stop(leaderboardTimer);
         }
     }
 
     public List<ScoreDto> getUserScores(String username) {
         User user = userService.findByUsername(username);
-        List<Score> scores = scoreRepository.findByUserOrderByScoreDesc(user);
-        return scores.stream().map(this::convertToDto).collect(Collectors.toList());
+        return scoreRepository.findByUserOrderByScoreDesc(user);
     }
 
     public List<ScoreDto> getUserScoresForGame(String username, Long gameId) {
         User user = userService.findByUsername(username);
         Game game = gameService.findById(gameId);
-        List<Score> scores = scoreRepository.findByUserAndGameOrderByScoreDesc(user, game);
-        return scores.stream().map(this::convertToDto).collect(Collectors.toList());
+        return scoreRepository.findByUserAndGameOrderByScoreDesc(user, game);
     }
 
     public ScoreDto getUserBestScoreForGame(String username, Long gameId) {
@@ -82,38 +289,79 @@ public class ScoreService {
         Game game = gameService.findById(gameId);
 
         return scoreRepository.findTopByUserAndGameOrderByScoreDesc(user, game)
-                .map(this::convertToDto)
                 .orElseThrow(() -> new ResourceNotFoundException("Score", "user/game", username + "/" + gameId));
     }
 
     public Page<ScoreDto> getTopScoresGlobal(int page, int size) {
         Pageable pageable = PageRequest.of(page, size);
-        Page<Score> scores = scoreRepository.findTopScoresGlobal(pageable);
-        return scores.map(this::convertToDto);
+        return scoreRepository.findTopScoresGlobal(pageable);
     }
 
     public Page<ScoreDto> getTopScoresByGame(Long gameId, int page, int size) {
         Game game = gameService.findById(gameId);
         Pageable pageable = PageRequest.of(page, size);
-        Page<Score> scores = scoreRepository.findTopScoresByGame(game, pageable);
-        return scores.map(this::convertToDto);
+        return scoreRepository.findTopScoresByGame(game, pageable);
+    }
+
+    /**
+     * Top scores globais por cursor: busca por índice a partir do último (score, id), sem COUNT
+     */
+    public CursorPage<ScoreDto> getTopScoresGlobalAfter(String cursor, int size) {
+        Pageable pageable = PageRequest.of(0, size + 1);
+        if (cursor == null || cursor.isBlank()) {
+            return toCursorPage(scoreRepository.findTopScoresGlobalFirst(pageable), size, 0);
+        }
+
+        KeysetCursor after = KeysetCursor.decode(cursor);
+        List<ScoreDto> scores = scoreRepository.findTopScoresGlobalAfter(
+                Math.toIntExact(after.getSortKey()), after.getId(), pageable);
+        return toCursorPage(scores, size, after.getPosition());
+    }
+
+    /**
+     * Top scores de um jogo por cursor
+     */
+    public CursorPage<ScoreDto> getTopScoresByGameAfter(Long gameId, String cursor, int size) {
+        Pageable pageable = PageRequest.of(0, size + 1);
+        if (cursor == null || cursor.isBlank()) {
+            return toCursorPage(scoreRepository.findTopScoresByGameFirst(gameId, pageable), size, 0);
+        }
+
+        KeysetCursor after = KeysetCursor.decode(cursor);
+        List<ScoreDto> scores = scoreRepository.findTopScoresByGameAfter(
+                gameId, Math.toIntExact(after.getSortKey()), after.getId(), pageable);
+        return toCursorPage(scores, size, after.getPosition());
+    }
+
+    // Lê size + 1 linhas: a linha extra só indica que existe próxima página
+    private CursorPage<ScoreDto> toCursorPage(List<ScoreDto> scores, int size, long position) {
+        boolean hasNext = scores.size() > size;
+        List<ScoreDto> page = hasNext ? scores.subList(0, size) : scores;
+
+        String nextCursor = null;
+        if (hasNext) {
+            ScoreDto last = page.get(page.size() - 1);
+            nextCursor = new KeysetCursor(last.getScore().longValue(), last.getId(), position + page.size()).encode();
+        }
+
+        return new CursorPage<>(page, nextCursor, hasNext);
     }
 
     public List<ScoreDto> getRecentScores(int limit) {
-        List<Score> scores = scoreRepository.findTop10ByOrderBySubmittedAtDesc();
-        return scores.stream()
-                .limit(limit)
-                .map(this::convertToDto)
-                .collect(Collectors.toList());
+        return scoreRepository.findRecentScores(recentScoresPage(limit));
     }
 
     public List<ScoreDto> getRecentScoresForGame(Long gameId, int limit) {
         Game game = gameService.findById(gameId);
-        List<Score> scores = scoreRepository.findTop10ByGameOrderBySubmittedAtDesc(game);
-        return scores.stream()
-                .limit(limit)
-                .map(this::convertToDto)
-                .collect(Collectors.toList());
+        return scoreRepository.findRecentScoresByGame(game, recentScoresPage(limit));
+    }
+
+    // Mantém o teto de 10 scores recentes das consultas anteriores
+    private Pageable recentScoresPage(int limit) {
+        if (limit < 1) {
+            throw new IllegalArgumentException("Limit deve ser maior que zero");
+        }
+        return PageRequest.of(0, Math.min(limit, RECENT_SCORES_MAX));
     }
 
     // ✅ MÉTODO CORRIGIDO - usando o método seguro
@@ -10,7 +10,10 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 @Service
 public class UserService {
@@ -22,7 +25,7 @@ public class UserService {
     private ScoreRepository scoreRepository;
 
     @Autowired
-    private RedisLeaderboardService redisLeaderboardService;
+    private LeaderboardEngine leaderboardEngine;
 
     public User findById(Long id) {
         return userRepository.findById(id)
@@ -34,6 +37,17 @@ public class UserService {
                 .orElseThrow(() -> new UsernameNotFoundException("Usuário não encontrado: " + username));
     }
 
+    /**
+     * Busca vários usuários em uma única query, indexados por username
+     */
+    public Map<String, User> findAllByUsernames(Collection<String> usernames) {
+        Map<String, User> users = new HashMap<>();
+        for (User user : userRepository.findByUsernameIn(usernames)) {
+            users.put(user.getUsername(), user);
+        }
+        return users;
+    }
+
     public User findByUsernameOrEmail(String usernameOrEmail) {
         return userRepository.findByUsernameOrEmail(usernameOrEmail, usernameOrEmail)
                 .orElseThrow(() -> new UsernameNotFoundException("Usuário não encontrado: " + usernameOrEmail));
@@ -62,7 +76,7 @@ public class UserService {
         Double averageScore = stats[2] != null ? ((Number) stats[2]).doubleValue() : 0.0;
 
         // Buscar ranking do Redis
-        Long globalRank = redisLeaderboardService.getUserGlobalRank(username);
+        Long globalRank = leaderboardEngine.getUserGlobalRank(username);
 
         return new UserRankingDto(username, globalRank, bestScore, totalScores, averageScore);
     }
@@ -0,0 +1,34 @@
+-- Atualiza atomicamente o melhor score de um membro (semântica "keep-max").
+--
+-- KEYS[1..n]  : sorted sets do leaderboard (ex.: jogo e global)
+-- KEYS[n + 1] : (opcional) chave do melhor score do usuário
+-- ARGV[1]     : membro (username)
+-- ARGV[2]     : score submetido (comparado com o melhor score do usuário)
+-- ARGV[3]     : n, quantidade de sorted sets em KEYS
+-- ARGV[4]     : chave de ordenação (score + momento, ver ScoreOrdering), usada como score nos sorted sets
+--
+-- Retorna {posição_1, ..., posição_n, mudou_1, ..., mudou_n}: a posição (base 0, ordem decrescente)
+-- do membro em cada sorted set, seguida de 1/0 indicando se o score dele mudou naquele sorted set.
+
+local member = ARGV[1]
+local score = tonumber(ARGV[2])
+local zsets = tonumber(ARGV[3])
+local rankKey = ARGV[4]
+local result = {}
+
+for i = 1, zsets do
+    -- GT só substitui o score existente se o novo for maior, mas ainda insere membros novos;
+    -- CH faz o ZADD contar também os membros atualizados, não só os inseridos
+    result[zsets + i] = redis.call('ZADD', KEYS[i], 'GT', 'CH', rankKey, member)
+    result[i] = redis.call('ZREVRANK', KEYS[i], member) or -1
+end
+
+local bestKey = KEYS[zsets + 1]
+if bestKey then
+    local best = redis.call('GET', bestKey)
+    if not best or score > tonumber(best) then
+        redis.call('SET', bestKey, ARGV[2])
+    end
+end
+
+return result
@@ -0,0 +1,20 @@
+-- Posição de um membro e seus vizinhos no ranking, numa única ida ao Redis.
+--
+-- KEYS[1] : sorted set do leaderboard
+-- ARGV[1] : membro (username)
+-- ARGV[2] : quantidade de vizinhos de cada lado
+--
+-- Retorna {início da janela (base 0), membro1, score1, membro2, score2, ...}
+-- ou uma lista vazia se o membro não estiver no ranking.
+
+local rank = redis.call('ZREVRANK', KEYS[1], ARGV[1])
+if not rank then
+    return {}
+end
+
+local neighbors = tonumber(ARGV[2])
+local start = math.max(0, rank - neighbors)
+local window = redis.call('ZREVRANGE', KEYS[1], start, rank + neighbors, 'WITHSCORES')
+
+table.insert(window, 1, start)
+return window
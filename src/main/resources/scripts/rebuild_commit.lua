@@ -0,0 +1,19 @@
+-- Publica a reconstrução de um leaderboard, numa única operação atômica.
+--
+-- KEYS[1] : chave temporária com o que foi lido do banco
+-- KEYS[2] : sorted set do leaderboard
+--
+-- O leaderboard passa a ser exatamente o conteúdo do banco: membros removidos do banco saem dele.
+-- Se o banco não tinha ninguém, a chave temporária nem existe e o leaderboard é apagado.
+-- Retorna a quantidade de membros do leaderboard publicado.
+
+local temp = KEYS[1]
+local live = KEYS[2]
+
+if redis.call('EXISTS', temp) == 1 then
+    redis.call('RENAME', temp, live)
+else
+    redis.call('DEL', live)
+end
+
+return redis.call('ZCARD', live)
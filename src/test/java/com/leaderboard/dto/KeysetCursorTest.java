@@ -0,0 +1,49 @@
+package com.leaderboard.dto;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class KeysetCursorTest {
+
+    @Test
+    void roundTripsNumericTiebreak() {
+        KeysetCursor cursor = KeysetCursor.decode(new KeysetCursor(1500L, 42L, 20).encode());
+
+        assertThat(cursor.getSortKey()).isEqualTo(1500L);
+        assertThat(cursor.getId()).isEqualTo(42L);
+        assertThat(cursor.getPosition()).isEqualTo(20);
+    }
+
+    @Test
+    void roundTripsUsernameWithSeparator() {
+        KeysetCursor cursor = KeysetCursor.decode(new KeysetCursor(1L << 40, "ana:maria", 100).encode());
+
+        assertThat(cursor.getSortKey()).isEqualTo(1L << 40);
+        assertThat(cursor.getTiebreak()).isEqualTo("ana:maria");
+        assertThat(cursor.getPosition()).isEqualTo(100);
+    }
+
+    @Test
+    void encodedCursorIsUrlSafe() {
+        String encoded = new KeysetCursor(Long.MAX_VALUE, "joão?&/", 1).encode();
+
+        assertThat(encoded).matches("[A-Za-z0-9_-]+");
+    }
+
+    @Test
+    void rejectsMalformedCursor() {
+        assertThatThrownBy(() -> KeysetCursor.decode("not base64!"))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> KeysetCursor.decode(new KeysetCursor(1L, "x", 0).encode().substring(0, 2)))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void rejectsNonNumericIdWhenReadAsId() {
+        KeysetCursor cursor = KeysetCursor.decode(new KeysetCursor(1L, "alice", 0).encode());
+
+        assertThatThrownBy(cursor::getId).isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,119 @@
+package com.leaderboard.service;
+
+import io.lettuce.core.RedisClient;
+import io.lettuce.core.ScriptOutputType;
+import io.lettuce.core.api.StatefulRedisConnection;
+import io.lettuce.core.api.sync.RedisCommands;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.testcontainers.DockerClientFactory;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.utility.DockerImageName;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Semântica "keep-max" do keep_max_score.lua contra um Redis real (Testcontainers)
+ */
+class KeepMaxScoreScriptTest {
+
+    private static final String GAME = "leaderboard:game:1";
+    private static final String GLOBAL = "leaderboard:global";
+    private static final String BEST = "user:best_scores:alice";
+    private static final LocalDateTime T0 = LocalDateTime.of(2025, 6, 1, 12, 0);
+
+    private static GenericContainer<?> redis;
+    private static RedisClient client;
+    private static StatefulRedisConnection<String, String> connection;
+    private static RedisCommands<String, String> commands;
+    private static String script;
+
+    @BeforeAll
+    static void startRedis() throws Exception {
+        assumeTrue(DockerClientFactory.instance().isDockerAvailable(), "Docker indisponível");
+
+        redis = new GenericContainer<>(DockerImageName.parse("redis:7-alpine")).withExposedPorts(6379);
+        redis.start();
+        client = RedisClient.create("redis://" + redis.getHost() + ":" + redis.getMappedPort(6379));
+        connection = client.connect();
+        commands = connection.sync();
+        script = new ClassPathResource("scripts/keep_max_score.lua").getContentAsString(StandardCharsets.UTF_8);
+    }
+
+    @AfterAll
+    static void stopRedis() {
+        if (connection != null) connection.close();
+        if (client != null) client.shutdown();
+        if (redis != null) redis.stop();
+    }
+
+    @BeforeEach
+    void flush() {
+        commands.flushall();
+    }
+
+    @Test
+    void insertsNewMemberAndReturnsRanks() {
+        commands.zadd(GAME, ScoreOrdering.rankKey(500, T0), "bob");
+
+        List<Long> result = submit("alice", 100, T0);
+
+        assertThat(result).containsExactly(1L, 0L, 1L, 1L);
+        assertThat(commands.get(BEST)).isEqualTo("100");
+    }
+
+    @Test
+    void keepsTheHigherScore() {
+        submit("alice", 300, T0);
+        List<Long> result = submit("alice", 200, T0.plusMinutes(5));
+
+        assertThat(result).containsExactly(0L, 0L, 0L, 0L);
+        assertThat(ScoreOrdering.scoreOf(commands.zscore(GAME, "alice"))).isEqualTo(300);
+        assertThat(commands.get(BEST)).isEqualTo("300");
+    }
+
+    @Test
+    void replacesWithAHigherScore() {
+        submit("alice", 200, T0);
+        List<Long> result = submit("alice", 300, T0.plusMinutes(5));
+
+        assertThat(result.subList(2, 4)).containsExactly(1L, 1L);
+        assertThat(ScoreOrdering.scoreOf(commands.zscore(GLOBAL, "alice"))).isEqualTo(300);
+        assertThat(commands.get(BEST)).isEqualTo("300");
+    }
+
+    @Test
+    void equalScoreAchievedEarlierWinsEvenWhenReplayedLate() {
+        submit("alice", 200, T0.plusMinutes(10));
+        List<Long> result = submit("alice", 200, T0);
+
+        assertThat(result.subList(2, 4)).containsExactly(1L, 1L);
+        assertThat(commands.zscore(GAME, "alice")).isEqualTo((double) ScoreOrdering.rankKey(200, T0));
+
+        // E o mais recente não volta a substituir
+        assertThat(submit("alice", 200, T0.plusMinutes(20)).subList(2, 4)).containsExactly(0L, 0L);
+    }
+
+    @Test
+    void tiesInTheSameMinuteAreOrderedByMemberDesc() {
+        submit("alice", 200, T0);
+        List<Long> result = submit("bob", 200, T0);
+
+        assertThat(result.subList(0, 2)).containsExactly(0L, 0L);
+        assertThat(commands.zrevrank(GAME, "alice")).isEqualTo(1L);
+    }
+
+    private List<Long> submit(String member, int score, LocalDateTime achievedAt) {
+        return commands.eval(script, ScriptOutputType.MULTI,
+                new String[]{GAME, GLOBAL, "user:best_scores:" + member},
+                member, String.valueOf(score), "2", String.valueOf(ScoreOrdering.rankKey(score, achievedAt)));
+    }
+}
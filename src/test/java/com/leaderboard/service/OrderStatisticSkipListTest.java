@@ -0,0 +1,125 @@
+package com.leaderboard.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class OrderStatisticSkipListTest {
+
+    // Mesma ordem do ZREVRANGE: maior score primeiro, empate pelo membro decrescente
+    private static final Comparator<OrderStatisticSkipList.Entry> REV_ORDER =
+            Comparator.<OrderStatisticSkipList.Entry>comparingDouble(e -> e.score).reversed()
+                    .thenComparing(e -> e.member, (a, b) -> OrderStatisticSkipList.compareCodePoints(b, a));
+
+    @Test
+    void ordersByScoreDescAndTiesByMemberDesc() {
+        OrderStatisticSkipList list = new OrderStatisticSkipList();
+        list.insert("alice", 10);
+        list.insert("carol", 30);
+        list.insert("bob", 10);
+        list.insert("dave", 20);
+
+        assertThat(members(list.range(1, 4))).containsExactly("carol", "dave", "bob", "alice");
+        assertThat(list.rankOf("carol", 30)).isEqualTo(1);
+        assertThat(list.rankOf("bob", 10)).isEqualTo(3);
+        assertThat(list.rankOf("alice", 10)).isEqualTo(4);
+    }
+
+    @Test
+    void tiesFollowCodePointOrderNotUtf16() {
+        OrderStatisticSkipList list = new OrderStatisticSkipList();
+        String emoji = "\uD83D\uDE00";    // U+1F600, surrogate pair em UTF-16
+        String lastBmp = "\uFFFF";
+        list.insert(lastBmp, 10);
+        list.insert(emoji, 10);
+        list.insert("zeta", 10);
+
+        // Em UTF-8 (Redis) e ucs_basic, U+1F600 > U+FFFF; String.compareTo diria o contrário
+        assertThat(members(list.range(1, 3))).containsExactly(emoji, lastBmp, "zeta");
+        assertThat(list.rankOf(emoji, 10)).isEqualTo(1);
+        assertThat(list.rankOf(lastBmp, 10)).isEqualTo(2);
+    }
+
+    @Test
+    void rankOfMissingMemberOrWrongScoreIsZero() {
+        OrderStatisticSkipList list = new OrderStatisticSkipList();
+        list.insert("alice", 10);
+
+        assertThat(list.rankOf("bob", 10)).isZero();
+        assertThat(list.rankOf("alice", 11)).isZero();
+    }
+
+    @Test
+    void removeUpdatesRanksAndSize() {
+        OrderStatisticSkipList list = new OrderStatisticSkipList();
+        list.insert("alice", 10);
+        list.insert("bob", 20);
+        list.insert("carol", 30);
+
+        assertThat(list.remove("bob", 20)).isTrue();
+        assertThat(list.remove("bob", 20)).isFalse();
+        assertThat(list.size()).isEqualTo(2);
+        assertThat(list.rankOf("alice", 10)).isEqualTo(2);
+        assertThat(members(list.range(1, 10))).containsExactly("carol", "alice");
+    }
+
+    @Test
+    void rangeOutsideBoundsIsEmpty() {
+        OrderStatisticSkipList list = new OrderStatisticSkipList();
+        list.insert("alice", 10);
+
+        assertThat(list.range(0, 1)).isEmpty();
+        assertThat(list.range(2, 3)).isEmpty();
+        assertThat(list.range(1, 0)).isEmpty();
+    }
+
+    @Test
+    void spansStayConsistentUnderRandomInsertsAndRemoves() {
+        Random random = new Random(42);
+        OrderStatisticSkipList list = new OrderStatisticSkipList();
+        List<OrderStatisticSkipList.Entry> expected = new ArrayList<>();
+
+        for (int i = 0; i < 5_000; i++) {
+            if (!expected.isEmpty() && random.nextInt(3) == 0) {
+                OrderStatisticSkipList.Entry removed = expected.remove(random.nextInt(expected.size()));
+                assertThat(list.remove(removed.member, removed.score)).isTrue();
+            } else {
+                String member = "user" + i;
+                double score = random.nextInt(100);
+                list.insert(member, score);
+                expected.add(new OrderStatisticSkipList.Entry(member, score));
+            }
+        }
+        expected.sort(REV_ORDER);
+
+        assertThat(list.size()).isEqualTo(expected.size());
+        assertThat(members(list.range(1, expected.size()))).isEqualTo(members(expected));
+        for (int rank = 1; rank <= expected.size(); rank += 37) {
+            OrderStatisticSkipList.Entry entry = expected.get(rank - 1);
+            assertThat(list.rankOf(entry.member, entry.score)).isEqualTo(rank);
+            assertThat(members(list.range(rank, rank))).containsExactly(entry.member);
+        }
+    }
+
+    @Test
+    void clearEmptiesTheList() {
+        OrderStatisticSkipList list = new OrderStatisticSkipList();
+        list.insert("alice", 10);
+        list.clear();
+
+        assertThat(list.size()).isZero();
+        assertThat(list.range(1, 1)).isEmpty();
+
+        list.insert("bob", 5);
+        assertThat(list.rankOf("bob", 5)).isEqualTo(1);
+    }
+
+    private static List<String> members(List<OrderStatisticSkipList.Entry> entries) {
+        return entries.stream().map(e -> e.member).toList();
+    }
+}
@@ -0,0 +1,160 @@
+package com.leaderboard.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class RedisCircuitBreakerTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private RedisCircuitBreaker breaker;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        breaker = breaker(60_000);
+    }
+
+    @Test
+    void staysClosedBelowMinimumCalls() {
+        for (int i = 0; i < 3; i++) {
+            fail(breaker);
+        }
+
+        assertThat(breaker.getState()).isEqualTo(RedisCircuitBreaker.State.CLOSED);
+    }
+
+    @Test
+    void opensWhenFailureRateReachesThreshold() {
+        succeed(breaker);
+        succeed(breaker);
+        fail(breaker);
+        fail(breaker);
+
+        assertThat(breaker.getState()).isEqualTo(RedisCircuitBreaker.State.OPEN);
+        assertThat(meterRegistry.get("leaderboard.redis.circuit.state").gauge().value()).isEqualTo(1.0);
+    }
+
+    @Test
+    void openCircuitRejectsWithoutCalling() {
+        tripOpen(breaker);
+        AtomicInteger calls = new AtomicInteger();
+
+        assertThatThrownBy(() -> breaker.execute(calls::incrementAndGet))
+                .isInstanceOf(RedisCircuitBreaker.OpenException.class);
+        assertThat(calls).hasValue(0);
+        assertThat(meterRegistry.get("leaderboard.redis.circuit.rejected").counter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void halfOpenClosesAfterSuccessfulProbes() {
+        breaker = breaker(0);
+        tripOpen(breaker);
+
+        succeed(breaker);
+        assertThat(breaker.getState()).isEqualTo(RedisCircuitBreaker.State.HALF_OPEN);
+        succeed(breaker);
+
+        assertThat(breaker.getState()).isEqualTo(RedisCircuitBreaker.State.CLOSED);
+        assertThat(breaker.isClosed()).isTrue();
+    }
+
+    @Test
+    void halfOpenReopensOnFailedProbe() {
+        breaker = breaker(0);
+        tripOpen(breaker);
+
+        succeed(breaker);
+        fail(breaker);
+
+        assertThat(breaker.getState()).isEqualTo(RedisCircuitBreaker.State.OPEN);
+    }
+
+    @Test
+    void halfOpenLimitsConcurrentProbes() {
+        breaker = breaker(0);
+        tripOpen(breaker);
+
+        // As duas sondas ficam em andamento; a terceira chamada é recusada
+        assertThatThrownBy(() -> breaker.execute(() -> {
+            breaker.execute(() -> breaker.execute(() -> "third"));
+            return null;
+        })).isInstanceOf(RedisCircuitBreaker.OpenException.class);
+    }
+
+    @Test
+    void opensOnSlowCalls() {
+        ReflectionTestUtils.setField(breaker, "slowCallMs", 1L);
+        breaker.init();
+
+        for (int i = 0; i < 4; i++) {
+            breaker.execute(() -> {
+                sleep(5);
+                return null;
+            });
+        }
+
+        assertThat(breaker.getState()).isEqualTo(RedisCircuitBreaker.State.OPEN);
+    }
+
+    @Test
+    void disabledBreakerAlwaysCalls() {
+        ReflectionTestUtils.setField(breaker, "enabled", false);
+        for (int i = 0; i < 10; i++) {
+            fail(breaker);
+        }
+
+        assertThat(breaker.execute(() -> "ok")).isEqualTo("ok");
+        assertThat(breaker.isClosed()).isTrue();
+    }
+
+    private RedisCircuitBreaker breaker(long openMs) {
+        RedisCircuitBreaker breaker = new RedisCircuitBreaker();
+        ReflectionTestUtils.setField(breaker, "enabled", true);
+        ReflectionTestUtils.setField(breaker, "windowSize", 4);
+        ReflectionTestUtils.setField(breaker, "minimumCalls", 4);
+        ReflectionTestUtils.setField(breaker, "failureRateThreshold", 50);
+        ReflectionTestUtils.setField(breaker, "slowCallMs", 60_000L);
+        ReflectionTestUtils.setField(breaker, "slowCallRateThreshold", 100);
+        ReflectionTestUtils.setField(breaker, "openMs", openMs);
+        ReflectionTestUtils.setField(breaker, "halfOpenProbes", 2);
+        ReflectionTestUtils.setField(breaker, "meterRegistry", meterRegistry);
+        breaker.init();
+        return breaker;
+    }
+
+    private static void tripOpen(RedisCircuitBreaker breaker) {
+        for (int i = 0; i < 4; i++) {
+            fail(breaker);
+        }
+        assertThat(breaker.getState()).isIn(RedisCircuitBreaker.State.OPEN, RedisCircuitBreaker.State.HALF_OPEN);
+    }
+
+    private static void succeed(RedisCircuitBreaker breaker) {
+        breaker.execute(() -> "ok");
+    }
+
+    private static void fail(RedisCircuitBreaker breaker) {
+        try {
+            breaker.execute(() -> {
+                throw new IllegalStateException("Redis fora");
+            });
+        } catch (IllegalStateException expected) {
+            // Falha registrada na janela
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
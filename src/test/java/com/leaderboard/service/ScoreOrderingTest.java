@@ -0,0 +1,55 @@
+package com.leaderboard.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ScoreOrderingTest {
+
+    private static final LocalDateTime T0 = LocalDateTime.of(2025, 6, 1, 12, 0);
+
+    @Test
+    void decodesTheOriginalScore() {
+        assertThat(ScoreOrdering.scoreOf(ScoreOrdering.rankKey(0, T0))).isZero();
+        assertThat(ScoreOrdering.scoreOf(ScoreOrdering.rankKey(1234, T0))).isEqualTo(1234);
+        assertThat(ScoreOrdering.scoreOf(ScoreOrdering.rankKey(Integer.MAX_VALUE, T0))).isEqualTo(Integer.MAX_VALUE);
+    }
+
+    @Test
+    void higherScoreAlwaysWins() {
+        assertThat(ScoreOrdering.rankKey(101, ScoreOrdering.EPOCH))
+                .isGreaterThan(ScoreOrdering.rankKey(100, ScoreOrdering.EPOCH));
+        assertThat(ScoreOrdering.rankKey(101, ScoreOrdering.TIME_LIMIT))
+                .isGreaterThan(ScoreOrdering.rankKey(100, ScoreOrdering.EPOCH));
+    }
+
+    @Test
+    void earlierAchievementWinsTies() {
+        assertThat(ScoreOrdering.rankKey(100, T0))
+                .isGreaterThan(ScoreOrdering.rankKey(100, T0.plusMinutes(1)));
+        // Mesmo minuto: mesma chave, o empate fica para o membro
+        assertThat(ScoreOrdering.rankKey(100, T0))
+                .isEqualTo(ScoreOrdering.rankKey(100, T0.plusSeconds(59)));
+    }
+
+    @Test
+    void clampsTimesOutsideTheRange() {
+        assertThat(ScoreOrdering.rankKey(100, ScoreOrdering.EPOCH.minusDays(1)))
+                .isEqualTo(ScoreOrdering.rankKey(100, ScoreOrdering.EPOCH));
+        assertThat(ScoreOrdering.rankKey(100, ScoreOrdering.TIME_LIMIT.plusYears(1)))
+                .isEqualTo(ScoreOrdering.rankKey(100, ScoreOrdering.TIME_LIMIT));
+        assertThat(ScoreOrdering.scoreOf(ScoreOrdering.rankKey(100, ScoreOrdering.TIME_LIMIT.plusYears(1))))
+                .isEqualTo(100);
+    }
+
+    @Test
+    void keyIsExactAsDouble() {
+        long key = ScoreOrdering.rankKey(Integer.MAX_VALUE, ScoreOrdering.EPOCH);
+
+        assertThat(key).isLessThan(1L << 53);
+        assertThat((long) (double) key).isEqualTo(key);
+        assertThat(ScoreOrdering.scoreOf((double) key)).isEqualTo(Integer.MAX_VALUE);
+    }
+}